@@ -1,5 +1,8 @@
 package tms.backend;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,6 +10,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 /**
  * Application Properties.
  */
@@ -22,4 +27,118 @@ public class ApplicationProperties {
     @NotNull
     private Boolean generateTestData;
 
+    /**
+     * Slow query log
+     */
+    @NotNull
+    @Valid
+    private SlowQueries slowQueries;
+
+    /**
+     * Task statistics
+     */
+    @NotNull
+    @Valid
+    private Statistics statistics;
+
+    /**
+     * Live task events
+     */
+    @NotNull
+    @Valid
+    private Events events;
+
+    /**
+     * Task change feed
+     */
+    @NotNull
+    @Valid
+    private Changes changes;
+
+    /**
+     * Task change feed settings.
+     */
+    @Getter
+    @Setter
+    public static class Changes {
+        /**
+         * How long deleted task ids are kept, clients that synced longer ago have to fetch all tasks again
+         */
+        @NotNull
+        private Duration tombstoneRetention;
+        /**
+         * How often tombstones past the retention are removed
+         */
+        @NotNull
+        private Duration pruneInterval;
+    }
+
+    /**
+     * Live task event settings.
+     */
+    @Getter
+    @Setter
+    public static class Events {
+        /**
+         * Events queued per subscriber, a subscriber falling further behind is disconnected
+         */
+        @NotNull
+        @Min(1)
+        private Integer bufferSize;
+        /**
+         * Interval of the keep alive comments that also reveal dead connections
+         */
+        @NotNull
+        private Duration heartbeatInterval;
+        /**
+         * Streams are closed after this long, clients reconnect by themselves
+         */
+        @NotNull
+        private Duration timeout;
+    }
+
+    /**
+     * Task statistics settings.
+     */
+    @Getter
+    @Setter
+    public static class Statistics {
+        /**
+         * Number of days, starting today, with a due count
+         */
+        @NotNull
+        @Min(1)
+        @Max(366)
+        private Integer dueDays;
+        /**
+         * Counts maintained by writes are recomputed from the collection after this long
+         */
+        @NotNull
+        private Duration refreshInterval;
+    }
+
+    /**
+     * Slow query log settings.
+     */
+    @Getter
+    @Setter
+    public static class SlowQueries {
+        /**
+         * Commands taking longer are logged and have their plan captured
+         */
+        @NotNull
+        private Duration threshold;
+        /**
+         * Minimum time between two explain calls, across all shapes
+         */
+        @NotNull
+        private Duration explainInterval;
+        /**
+         * Number of distinct command shapes tracked, further shapes are not recorded
+         */
+        @NotNull
+        @Min(1)
+        private Integer maxShapes;
+    }
+
 }
@@ -0,0 +1,41 @@
+package tms.backend;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+import tms.backend.service.SlowQueryLog;
+
+/**
+ * Mongo client customizations.
+ */
+@Configuration
+public class MongoConfiguration {
+
+    /**
+     * Registers the slow query log next to the observation command listener
+     *
+     * @param slowQueryLog slow query log
+     * @return customizer
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryLogCustomizer(SlowQueryLog slowQueryLog) {
+        return builder -> builder.addCommandListener(slowQueryLog);
+    }
+
+    /**
+     * Creates a span and a timer sample per Mongo command, parented to the observation current on the calling thread.
+     * Replaces the command listener of the metrics auto configuration, disabled in application.properties,
+     * so commands are not timed twice
+     *
+     * @param observationRegistry observation registry
+     * @return customizer
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder.contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
@@ -0,0 +1,53 @@
+package tms.backend;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import tms.backend.repository.RepositoryObservation;
+import tms.backend.utils.TraceIdFilter;
+
+/**
+ * Tracing setup. Incoming traceparent headers are picked up by the HTTP server observation,
+ * repository calls and Mongo commands get their own spans below it.
+ * Spans are exported by {@link tms.common.SpanExportConfiguration}.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Returns the trace id to callers
+     *
+     * @param tracer tracer
+     * @return filter
+     */
+    @Bean
+    public TraceIdFilter traceIdFilter(Tracer tracer) {
+        return new TraceIdFilter(tracer);
+    }
+
+    /**
+     * Wraps every repository method in an observation, the same way the repository metrics are attached
+     *
+     * @param observationRegistry observation registry
+     * @return post processor
+     */
+    @Bean
+    public static BeanPostProcessor repositoryObservationPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryObservation(
+                                    observationRegistry.getObject(), information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
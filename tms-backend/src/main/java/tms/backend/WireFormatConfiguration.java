@@ -0,0 +1,44 @@
+package tms.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary representations of the API next to JSON, picked by the Accept and Content-Type headers.
+ * Clients that do not ask for them keep getting JSON.
+ */
+@Configuration
+public class WireFormatConfiguration {
+
+    /**
+     * Smile (application/x-jackson-smile), configured like the JSON mapper.
+     * Repeated short string values such as the task status are written once and referenced afterwards.
+     *
+     * @param objectMapper JSON object mapper
+     * @return converter replacing the default Smile converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(factory));
+    }
+
+    /**
+     * CBOR (application/cbor), configured like the JSON mapper
+     *
+     * @param objectMapper JSON object mapper
+     * @return converter replacing the default CBOR converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+}
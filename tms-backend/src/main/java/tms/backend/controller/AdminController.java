@@ -0,0 +1,68 @@
+package tms.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tms.backend.model.SlowQuery;
+import tms.backend.service.SlowQueryLog;
+import tms.backend.utils.GenericErrorResponse;
+
+import java.time.Instant;
+
+/**
+ * Operational endpoints that are not part of the tasks API.
+ */
+@RestController
+public class AdminController {
+
+    /**
+     * Upper bound for the number of listed query shapes
+     */
+    static final int MAX_SLOW_QUERIES = 100;
+
+    @Autowired
+    private HttpServletRequest request;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * List the slowest Mongo command shapes with their captured plans
+     *
+     * @param limit number of shapes
+     * @return ResponseEntity
+     */
+    @Operation(summary = "Get the slowest Mongo query shapes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = SlowQuery.class)))}),
+            @ApiResponse(responseCode = "400", description = "Invalid limit",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping("/admin/slow-queries")
+    public ResponseEntity<?> getSlowQueries(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SLOW_QUERIES) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_SLOW_QUERIES);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(slowQueryLog.slowest(limit));
+    }
+
+    private ResponseEntity<GenericErrorResponse> getErrorResponseEntity(HttpStatus status, String error) {
+        GenericErrorResponse response = GenericErrorResponse.builder()
+                .path(request.getRequestURI())
+                .error(error)
+                .status(status.value())
+                .timestamp(Instant.now())
+                .build();
+        return ResponseEntity.status(status).body(response);
+    }
+}
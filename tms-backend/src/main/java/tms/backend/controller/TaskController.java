@@ -1,5 +1,9 @@
 package tms.backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,16 +13,51 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tms.backend.model.BatchOperation;
+import tms.backend.model.BatchResult;
+import tms.backend.model.Status;
 import tms.backend.model.Task;
+import tms.backend.model.TaskChange;
+import tms.backend.model.TaskChanges;
+import tms.backend.model.TaskEvent;
+import tms.backend.model.TaskFilter;
+import tms.backend.model.TaskPage;
+import tms.backend.model.TaskPatch;
+import tms.backend.model.TaskProjection;
+import tms.backend.model.TaskStats;
+import tms.backend.model.TaskTombstone;
+import tms.backend.model.UpdateByQuery;
+import tms.backend.model.UpdateByQueryResult;
 import tms.backend.repository.TaskRepository;
+import tms.backend.repository.TaskTombstoneRepository;
+import tms.backend.service.TaskChangeTracker;
+import tms.backend.service.TaskEventBus;
+import tms.backend.service.TaskSequence;
+import tms.backend.service.TaskStatistics;
+import tms.backend.utils.CursorCodec;
 import tms.backend.utils.GenericErrorResponse;
+import tms.backend.utils.SortParser;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Main controller responsible for tasks API.
@@ -27,15 +66,59 @@ import java.util.Optional;
 @RestController
 public class TaskController {
 
+    /**
+     * Upper bound for the page size a client may request
+     */
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Number of ranked search results that can be paged through, deeper pages cost more with every skipped match
+     */
+    static final int MAX_SEARCH_RESULTS = 1000;
+
+    /**
+     * Upper bound for the number of operations in one batch request
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Media type of the streaming export
+     */
+    static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Number of exported tasks written between two flushes
+     */
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     @Autowired
     private HttpServletRequest request;
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskChangeTracker changeTracker;
+
+    @Autowired
+    private TaskStatistics statistics;
+
+    @Autowired
+    private TaskEventBus eventBus;
+
+    @Autowired
+    private TaskSequence sequence;
+
     /**
-     * Get a list of all tasks
+     * Get a list of all tasks, answers If-None-Match with 304 while the collection is unchanged
      *
+     * @param webRequest web request
      * @return task list
      */
     @Operation(summary = "Get all tasks")
@@ -47,22 +130,310 @@ public class TaskController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class)))})
     @GetMapping("/tasks")
-    public List<Task> getAllTasks() {
+    public ResponseEntity<List<Task>> getAllTasks(WebRequest webRequest) {
+        String etag = changeTracker.collectionTag();
+        if (webRequest.checkNotModified(etag)) {
+            log.info("Tasks not modified");
+            return null;
+        }
         List<Task> tasks = taskRepository.findAll();
         log.info("Retrieved {} tasks", tasks.size());
-        return tasks;
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(tasks);
     }
 
     /**
-     * Retrieve a task by ID
+     * Get a page of tasks matching a filter using keyset pagination on the sort keys.
+     * At most one of after/before may be supplied, cost per page does not depend on collection size.
      *
-     * @param id task id
+     * @param after     cursor of the last task on the previous page
+     * @param before    cursor of the first task on the next page
+     * @param limit     page size
+     * @param status    match any of these statuses
+     * @param dueAfter  inclusive lower bound of the due date
+     * @param dueBefore exclusive upper bound of the due date
+     * @param sort      comma separated sort keys (due, status, id), '-' prefix for descending
+     * @param fields    fields to return besides the id and the sort keys, all when omitted
+     * @param descriptionLength max number of description characters, longer descriptions are cut
+     * @param webRequest web request
+     * @return ResponseEntity
+     */
+    @Operation(summary = "Get a page of tasks")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = TaskPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit, sort or fields",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping("/tasks/page")
+    public ResponseEntity<?> getTaskPage(@RequestParam(required = false) String after,
+                                         @RequestParam(required = false) String before,
+                                         @RequestParam(defaultValue = "50") int limit,
+                                         @RequestParam(required = false) List<Status> status,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueAfter,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueBefore,
+                                         @RequestParam(required = false) String sort,
+                                         @RequestParam(required = false) Set<String> fields,
+                                         @RequestParam(required = false) Integer descriptionLength,
+                                         WebRequest webRequest) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (after != null && before != null) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Only one of after/before is allowed");
+        }
+        Sort order;
+        try {
+            order = SortParser.parse(sort);
+        } catch (IllegalArgumentException e) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        TaskProjection projection;
+        try {
+            projection = toProjection(fields, descriptionLength);
+        } catch (IllegalArgumentException e) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        // the collection tag is enough, caches already key the tag by the full URL
+        String etag = changeTracker.collectionTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        TaskFilter filter = TaskFilter.builder().statuses(status).dueAfter(dueAfter).dueBefore(dueBefore).build();
+        TaskPage page;
+        try {
+            page = before != null
+                    ? getPage(filter, order, projection, before, true, limit)
+                    : getPage(filter, order, projection, after, false, limit);
+        } catch (IllegalArgumentException e) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        log.info("Retrieved page of {} tasks", page.getItems().size());
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(page);
+    }
+
+    /**
+     * Search task titles and descriptions through the text index, most relevant tasks first.
+     * Only matching tasks are read and ranked, so cost follows the number of matches rather than the collection size.
+     *
+     * @param q         search terms, "quoted phrases" and -excluded terms are supported
+     * @param cursor    cursor of the page, as returned in next or prev of another search page
+     * @param limit     page size
+     * @param status    match any of these statuses
+     * @param dueAfter  inclusive lower bound of the due date
+     * @param dueBefore exclusive upper bound of the due date
+     * @param fields    fields to return besides the id and the score, all when omitted
+     * @param descriptionLength max number of description characters, longer descriptions are cut
+     * @param webRequest web request
+     * @return ResponseEntity
+     */
+    @Operation(summary = "Search tasks by title and description")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = TaskPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid query, cursor, limit or fields",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping("/tasks/search")
+    public ResponseEntity<?> searchTasks(@RequestParam String q,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit,
+                                         @RequestParam(required = false) List<Status> status,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueAfter,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueBefore,
+                                         @RequestParam(required = false) Set<String> fields,
+                                         @RequestParam(required = false) Integer descriptionLength,
+                                         WebRequest webRequest) {
+        if (q.isBlank()) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        int offset;
+        TaskProjection projection;
+        try {
+            offset = cursor == null ? 0 : CursorCodec.decodeOffset(cursor);
+            projection = toProjection(fields, descriptionLength);
+        } catch (IllegalArgumentException e) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (offset >= MAX_SEARCH_RESULTS) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST,
+                    "Only the first " + MAX_SEARCH_RESULTS + " results can be paged through, refine the query");
+        }
+        String etag = changeTracker.collectionTag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        TaskFilter filter = TaskFilter.builder().statuses(status).dueAfter(dueAfter).dueBefore(dueBefore).build();
+        int size = Math.min(limit, MAX_SEARCH_RESULTS - offset);
+        // one extra row tells us whether another page follows without a count query
+        List<Task> rows = taskRepository.search(q, filter, offset, size + 1, projection);
+        boolean hasMore = rows.size() > size && offset + size < MAX_SEARCH_RESULTS;
+        List<Task> items = rows.size() > size ? new ArrayList<>(rows.subList(0, size)) : rows;
+        TaskPage page = new TaskPage(items,
+                hasMore ? CursorCodec.encodeOffset(offset + size) : null,
+                offset > 0 ? CursorCodec.encodeOffset(Math.max(0, offset - limit)) : null);
+        log.info("Search returned {} tasks", items.size());
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(page);
+    }
+
+    /**
+     * Task counts per status, overdue tasks and open tasks due per day for the coming days.
+     * Counts are cached and kept up to date by writes, polling clients get 304 while nothing changed.
+     *
+     * @param webRequest web request
+     * @return ResponseEntity
+     */
+    @Operation(summary = "Get task statistics")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = TaskStats.class))}),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStats> getTaskStats(WebRequest webRequest) {
+        // read before the counts, a write racing with this request then only costs the next poll a full response
+        String collectionTag = changeTracker.collectionTag();
+        TaskStats stats = statistics.get();
+        String etag = TaskChangeTracker.derivedTag(collectionTag, stats.getDate(),
+                stats.getComputedAt().toEpochMilli());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(stats);
+    }
+
+    /**
+     * Stream task events as they happen, as Server-Sent Events named after the event type.
+     * A client reconnecting with a Last-Event-ID that missed events first gets a RESET event.
+     *
+     * @param lastEventId id of the last event received before reconnecting
+     * @return event stream
+     */
+    @Operation(summary = "Stream task changes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = TaskEvent.class))})})
+    @GetMapping(value = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getTaskEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return eventBus.subscribe(lastEventId);
+    }
+
+    /**
+     * Tasks written and deleted since a change sequence number, for clients keeping a copy of all tasks.
+     * Without a sequence number all tasks are returned. A sequence number from before the tombstone retention
+     * is answered with 410, the client then starts over with all tasks.
+     *
+     * @param since sequence number returned by the previous call
+     * @return ResponseEntity
+     */
+    @Operation(summary = "Get the task changes since a sequence number")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = TaskChanges.class))}),
+            @ApiResponse(responseCode = "410", description = "Changes since the sequence number are not available",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping("/tasks/changes")
+    public ResponseEntity<?> getTaskChanges(@RequestParam(required = false) Long since) {
+        // read first, writes landing while the changes are read are listed again by the next call
+        long committed = sequence.committed();
+        if (since == null) {
+            return ResponseEntity.status(HttpStatus.OK).body(TaskChanges.builder()
+                    .full(true)
+                    .seq(committed)
+                    .tasks(taskRepository.findAll())
+                    .deleted(List.of())
+                    .build());
+        }
+        if (since > committed) {
+            return getErrorResponseEntity(HttpStatus.GONE, "Unknown sequence number, fetch all tasks");
+        }
+        List<Task> tasks = taskRepository.findBySeqGreaterThanOrderBySeq(since);
+        List<TaskTombstone> deleted = tombstoneRepository.findBySeqGreaterThanOrderBySeq(since);
+        // checked after reading, the horizon moves before tombstones are pruned
+        if (since < sequence.getHorizon()) {
+            return getErrorResponseEntity(HttpStatus.GONE, "Changes are no longer available, fetch all tasks");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(TaskChanges.builder()
+                .seq(committed)
+                .tasks(tasks)
+                .deleted(deleted)
+                .build());
+    }
+
+    /**
+     * Export all tasks as newline delimited JSON.
+     * Tasks are read from a Mongo cursor and written as they arrive, so memory use does not grow
+     * with the collection and a slow reader simply slows down the cursor.
+     *
+     * @return streamed response
+     */
+    @Operation(summary = "Export all tasks as NDJSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = NDJSON,
+                    schema = @Schema(implementation = Task.class))}),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @GetMapping(value = "/tasks/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = mapper.writerFor(Task.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            long count = 0;
+            try (Stream<Task> tasks = taskRepository.streamAllBy();
+                 JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+            log.info("Exported {} tasks", count);
+        };
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * Retrieve a task by ID, answers If-None-Match with 304 while the task version is unchanged
+     *
+     * @param id         task id
+     * @param webRequest web request
      * @return ResponseEntity
      */
     @Operation(summary = "Get a task")
     @ApiResponses({
             @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = Task.class))}),
+            @ApiResponse(responseCode = "304", description = "Task not modified"),
             @ApiResponse(responseCode = "404", description = "Task not found",
                     content = @Content(
                             mediaType = "application/json",
@@ -72,11 +443,16 @@ public class TaskController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class)))})
     @GetMapping("/tasks/{id}")
-    public ResponseEntity<?> getTask(@PathVariable String id) {
+    public ResponseEntity<?> getTask(@PathVariable String id, WebRequest webRequest) {
         Optional<Task> task = taskRepository.findById(id);
         if (task.isPresent()) {
+            String etag = TaskChangeTracker.taskTag(task.get().getId(), task.get().getVersion());
+            if (webRequest.checkNotModified(etag)) {
+                log.info("Task {} not modified", id);
+                return null;
+            }
             log.info("Retrieved task {}", task.get().getId());
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            return ResponseEntity.status(HttpStatus.OK).eTag(etag).body(task);
         } else {
             return getNotFoundResponse(id);
         }
@@ -85,7 +461,7 @@ public class TaskController {
     /**
      * Create a new task
      *
-     * @param task task body to create
+     * @param task task body to create, a version in it is ignored
      * @return created task
      */
     @Operation(summary = "Create a task")
@@ -96,19 +472,37 @@ public class TaskController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task already exists",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class)))})
     @PostMapping("/tasks")
-    public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        Task createdTask = taskRepository.save(task);
+    public ResponseEntity<?> createTask(@RequestBody Task task) {
+        // a create always inserts, like batch creates, a version would turn the save into a versioned update
+        task.setVersion(null);
+        Task createdTask;
+        long seq = sequence.begin();
+        try {
+            task.setSeq(seq);
+            createdTask = taskRepository.save(task);
+        } catch (DuplicateKeyException e) {
+            return getErrorResponseEntity(HttpStatus.CONFLICT, "Task already exists");
+        } finally {
+            sequence.end(seq);
+        }
+        recordWrite(null, createdTask);
         log.info("Created task {}", createdTask.getId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(TaskChangeTracker.taskTag(createdTask.getId(), createdTask.getVersion()))
+                .body(createdTask);
     }
 
     /**
-     * Update a task
+     * Update a task, the body must carry the version it was read with
      *
      * @param task task body to update
      * @return updated task
@@ -121,15 +515,190 @@ public class TaskController {
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task was modified concurrently",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = GenericErrorResponse.class)))})
     @PutMapping("/tasks")
-    public Task updateTask(@RequestBody Task task) {
-        Task updatedTask = taskRepository.save(task);
-        log.info("Updated task {}", updatedTask.getId());
-        return taskRepository.save(task);
+    public ResponseEntity<?> updateTask(@RequestBody Task task) {
+        // the statistics need the replaced status and due date
+        Optional<Task> previous = task.getId() == null ? Optional.empty() : taskRepository.findById(task.getId());
+        Task savedTask;
+        long seq = sequence.begin();
+        try {
+            task.setSeq(seq);
+            savedTask = taskRepository.save(task);
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // a missing version makes the save an insert, which collides with the existing id,
+            // stored tasks always have one since TaskMigration so the client did not send the version it read
+            log.info("Version conflict on task {}", task.getId());
+            return getErrorResponseEntity(HttpStatus.CONFLICT, "Task was modified concurrently");
+        } finally {
+            sequence.end(seq);
+        }
+        if (previous.isPresent() && !isPrevious(previous.get(), savedTask)) {
+            // another write slipped in between the read and the save
+            statistics.invalidate();
+        }
+        recordWrite(previous.orElse(null), savedTask);
+        log.info("Updated task {}", savedTask.getId());
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(TaskChangeTracker.taskTag(savedTask.getId(), savedTask.getVersion()))
+                .body(savedTask);
+    }
+
+    /**
+     * Set only the supplied fields of a task with a single atomic write
+     *
+     * @param id    task id
+     * @param patch fields to set, with the version read by the client if it should be checked
+     * @return patched task
+     */
+    @Operation(summary = "Partially update a task")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = Task.class))}),
+            @ApiResponse(responseCode = "400", description = "No field to update",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Task was modified concurrently",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @PatchMapping("/tasks/{id}")
+    public ResponseEntity<?> patchTask(@PathVariable String id, @RequestBody TaskPatch patch) {
+        if (patch.getTitle() == null && patch.getDescription() == null && patch.getStatus() == null
+                && patch.getDue() == null) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Patch must set at least one field");
+        }
+        TaskChange change;
+        long seq = sequence.begin();
+        try {
+            change = taskRepository.patch(id, patch, seq);
+        } finally {
+            sequence.end(seq);
+        }
+        if (change == null) {
+            // only a failed conditional patch pays for telling a stale version from a missing task
+            if (patch.getVersion() != null && taskRepository.existsById(id)) {
+                log.info("Version conflict on task {}", id);
+                return getErrorResponseEntity(HttpStatus.CONFLICT, "Task was modified concurrently");
+            }
+            return getNotFoundResponse(id);
+        }
+        recordWrite(change.getBefore(), change.getAfter());
+        Task patchedTask = change.getAfter();
+        log.info("Patched task {}", id);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(TaskChangeTracker.taskTag(patchedTask.getId(), patchedTask.getVersion()))
+                .body(patchedTask);
+    }
+
+    /**
+     * Apply one update to every task matching a filter with a single server side write
+     *
+     * @param update filter, fields to set and dry run flag
+     * @return matched and modified counts
+     */
+    @Operation(summary = "Update all tasks matching a filter")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = UpdateByQueryResult.class))}),
+            @ApiResponse(responseCode = "400", description = "Empty filter or update",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @PostMapping("/tasks:update")
+    public ResponseEntity<?> updateByQuery(@RequestBody UpdateByQuery update) {
+        TaskFilter filter = update.getFilter();
+        // an empty filter would rewrite the whole collection, which is never what a status transition wants
+        if (filter == null || (isEmpty(filter.getStatuses()) && isEmpty(filter.getIds())
+                && filter.getDueAfter() == null && filter.getDueBefore() == null)) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Filter must set at least one field");
+        }
+        TaskPatch set = update.getSet();
+        if (set == null || (set.getTitle() == null && set.getDescription() == null && set.getStatus() == null
+                && set.getDue() == null)) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Update must set at least one field");
+        }
+        if (set.getVersion() != null) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST, "Version cannot be set by query");
+        }
+        UpdateByQueryResult result;
+        long seq = sequence.begin();
+        try {
+            result = taskRepository.updateByQuery(filter, set, update.isDryRun(), seq);
+        } finally {
+            sequence.end(seq);
+        }
+        if (result.getModified() > 0) {
+            recordBulkWrite();
+        }
+        log.info("Update by query{}: {} matched, {} modified", update.isDryRun() ? " (dry run)" : "",
+                result.getMatched(), result.getModified());
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
+    /**
+     * Create, update and delete tasks in one request using a single unordered bulk write
+     *
+     * @param operations batch operations
+     * @return per item results
+     */
+    @Operation(summary = "Create, update and delete tasks in bulk")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = BatchResult.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid input",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GenericErrorResponse.class)))})
+    @PostMapping("/tasks:batch")
+    public ResponseEntity<?> batch(@RequestBody List<BatchOperation> operations) {
+        if (operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            return getErrorResponseEntity(HttpStatus.BAD_REQUEST,
+                    "Batch must contain between 1 and " + MAX_BATCH_SIZE + " operations");
+        }
+        BatchResult result;
+        long seq = sequence.begin();
+        try {
+            result = taskRepository.bulkWrite(operations, seq);
+            List<TaskTombstone> tombstones = result.getItems().stream()
+                    .filter(item -> item.getType() == BatchOperation.Type.DELETE && item.getError() == null)
+                    .map(item -> new TaskTombstone(item.getId(), seq, Instant.now()))
+                    .toList();
+            if (!tombstones.isEmpty()) {
+                tombstoneRepository.saveAll(tombstones);
+            }
+        } finally {
+            sequence.end(seq);
+        }
+        recordBulkWrite();
+        log.info("Batch of {} operations: {} inserted, {} modified, {} upserted, {} deleted, {} failed",
+                operations.size(), result.getInserted(), result.getModified(), result.getUpserted(),
+                result.getDeleted(), result.getFailed());
+        return ResponseEntity.status(HttpStatus.OK).body(result);
     }
 
     /**
@@ -153,7 +722,14 @@ public class TaskController {
     public ResponseEntity<?> deleteTask(@PathVariable String id) {
         Optional<Task> task = taskRepository.findById(id);
         if (task.isPresent()) {
-            taskRepository.delete(task.get());
+            long seq = sequence.begin();
+            try {
+                taskRepository.delete(task.get());
+                tombstoneRepository.save(new TaskTombstone(id, seq, Instant.now()));
+            } finally {
+                sequence.end(seq);
+            }
+            recordWrite(task.get(), null);
             log.info("Deleted task {}", task.get().getId());
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         } else {
@@ -161,6 +737,68 @@ public class TaskController {
         }
     }
 
+    private TaskPage getPage(TaskFilter filter, Sort sort, TaskProjection projection, String cursor,
+                             boolean backwards, int limit) {
+        List<Object> position = cursor == null ? null : CursorCodec.decode(cursor, sort);
+        // one extra row tells us whether another page follows without a count query
+        List<Task> rows = taskRepository.findPage(filter, sort, position, backwards, limit + 1, projection);
+        if (backwards && rows.isEmpty()) {
+            // nothing precedes the cursor any more, start over from the first page
+            return getPage(filter, sort, projection, null, false, limit);
+        }
+        boolean hasMore = rows.size() > limit;
+        List<Task> items = new ArrayList<>(hasMore ? rows.subList(0, limit) : rows);
+        if (backwards) {
+            Collections.reverse(items);
+        }
+        String first = items.isEmpty() ? cursor : CursorCodec.encode(sort, items.get(0));
+        String last = items.isEmpty() ? cursor : CursorCodec.encode(sort, items.get(items.size() - 1));
+        if (backwards) {
+            return new TaskPage(items, last, hasMore ? first : null);
+        }
+        return new TaskPage(items, hasMore ? last : null, cursor == null ? null : first);
+    }
+
+    /**
+     * Everything that follows a single task write: collection tag, statistics and live events
+     */
+    private void recordWrite(Task before, Task after) {
+        changeTracker.recordChange();
+        statistics.record(before, after);
+        eventBus.publish(TaskEvent.of(before, after));
+    }
+
+    /**
+     * Everything that follows a write of an unknown set of tasks
+     */
+    private void recordBulkWrite() {
+        changeTracker.recordChange();
+        statistics.invalidate();
+        eventBus.publish(TaskEvent.reset());
+    }
+
+    private static boolean isPrevious(Task previous, Task saved) {
+        long version = previous.getVersion() == null ? 0 : previous.getVersion();
+        return saved.getVersion() != null && saved.getVersion() == version + 1;
+    }
+
+    private static TaskProjection toProjection(Set<String> fields, Integer descriptionLength) {
+        if (fields != null && !TaskProjection.FIELDS.containsAll(fields)) {
+            throw new IllegalArgumentException("Fields must be among " + TaskProjection.FIELDS);
+        }
+        if (descriptionLength != null && descriptionLength < 1) {
+            throw new IllegalArgumentException("Description length must be positive");
+        }
+        if (fields == null && descriptionLength == null) {
+            return null;
+        }
+        return TaskProjection.builder().fields(fields).descriptionLength(descriptionLength).build();
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+
     private ResponseEntity<GenericErrorResponse> getNotFoundResponse(String id) {
         log.info("Task {} not found", id);
         return getErrorResponseEntity(HttpStatus.NOT_FOUND, "Task not found");
@@ -0,0 +1,25 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * Outcome of a single batch operation, the status follows the matching single task endpoint.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BatchItemResult {
+    private int index;
+    private BatchOperation.Type type;
+    private String id;
+    /**
+     * Task version after a successful create or update
+     */
+    private Long version;
+    private int status;
+    private String error;
+
+}
@@ -0,0 +1,33 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * A single create, update or delete inside a batch request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class BatchOperation {
+
+    /**
+     * Batch operation type
+     */
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Type type;
+    /**
+     * Task id, only used by DELETE
+     */
+    private String id;
+    /**
+     * Task body, used by CREATE and UPDATE
+     */
+    private Task task;
+
+}
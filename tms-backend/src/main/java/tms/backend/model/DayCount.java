@@ -0,0 +1,20 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks due on a day.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class DayCount {
+    private LocalDate day;
+    private long count;
+
+}
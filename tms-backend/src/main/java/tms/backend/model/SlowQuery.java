@@ -0,0 +1,41 @@
+package tms.backend.model;
+
+import lombok.*;
+import org.bson.Document;
+
+import java.time.Instant;
+
+/**
+ * Timings of one Mongo command shape together with the plan captured the first time it was slow.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SlowQuery {
+    /**
+     * Command with literal values redacted
+     */
+    private String shape;
+    private String command;
+    private String database;
+    private long count;
+    /**
+     * Number of executions above the slow query threshold
+     */
+    private long slowCount;
+    private double meanMillis;
+    private double maxMillis;
+    private Instant lastSlow;
+    /**
+     * Stages of the winning plan, e.g. "FETCH <- IXSCAN status_1_due_1", null until captured
+     */
+    private String planSummary;
+    /**
+     * Winning plan as returned by explain, null until captured
+     */
+    private Document plan;
+
+}
@@ -0,0 +1,21 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of tasks with a status that are due on a day, the day is null for tasks without a due date.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class StatusDueCount {
+    private Status status;
+    private LocalDate day;
+    private long count;
+
+}
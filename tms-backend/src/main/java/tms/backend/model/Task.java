@@ -1,12 +1,24 @@
 package tms.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 
 /**
  * Task entity model.
+ * Indexes back the status/due filters and sorts, the id suffix keeps keyset pagination an index scan.
+ * Title and description share the text index used by search, title matches weigh more.
+ * The sequence index serves the change feed, it only reads tasks written since a client's last sync.
+ * Null fields are left out of responses, so fields not selected by a list projection cost nothing on the wire.
  */
 @Getter
 @Setter
@@ -14,12 +26,35 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString
+@Document("task")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@CompoundIndexes({
+        @CompoundIndex(name = "status_due_id", def = "{'status': 1, 'due': 1, '_id': 1}"),
+        @CompoundIndex(name = "due_id", def = "{'due': 1, '_id': 1}")
+})
 public class Task {
     @Id
     private String id;
+    @TextIndexed(weight = 3)
     private String title;
+    @TextIndexed
     private String description;
     private Status status;
     private LocalDateTime due;
+    /**
+     * Optimistic locking version, incremented on every write
+     */
+    @Version
+    private Long version;
+    /**
+     * Change sequence number of the last write, assigned by the backend whatever the client sends
+     */
+    @Indexed
+    private Long seq;
+    /**
+     * Relevance of a search result, only read by text searches and never stored
+     */
+    @TextScore
+    private Float score;
 
 }
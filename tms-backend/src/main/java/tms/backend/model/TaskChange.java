@@ -0,0 +1,18 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * A task before and after a single write.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskChange {
+    private Task before;
+    private Task after;
+
+}
@@ -0,0 +1,34 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Tasks written and deleted since a change sequence number, or all tasks for a full sync.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskChanges {
+    /**
+     * True if the tasks are the whole collection and replace everything the client holds
+     */
+    private boolean full;
+    /**
+     * Sequence number to ask for the next changes with, every write up to it is included
+     */
+    private long seq;
+    /**
+     * Tasks created or updated since the requested sequence number, in sequence order for a delta
+     */
+    private List<Task> tasks;
+    /**
+     * Tasks deleted since the requested sequence number, a task recreated with the same id has a higher sequence number
+     */
+    private List<TaskTombstone> deleted;
+
+}
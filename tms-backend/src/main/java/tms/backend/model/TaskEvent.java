@@ -0,0 +1,57 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * Change notification pushed to live subscribers.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskEvent {
+
+    /**
+     * Task event type
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        /**
+         * Any number of tasks may have changed, subscribers have to reload what they show
+         */
+        RESET
+    }
+
+    private Type type;
+    /**
+     * Task id, null for RESET
+     */
+    private String id;
+    /**
+     * Task after the write, only sent with CREATED and UPDATED
+     */
+    private Task task;
+
+    /**
+     * Event describing a single task write
+     *
+     * @param before task before the write, null for a created task
+     * @param after  task after the write, null for a deleted task
+     * @return TaskEvent
+     */
+    public static TaskEvent of(Task before, Task after) {
+        if (after == null) {
+            return new TaskEvent(Type.DELETED, before.getId(), null);
+        }
+        return new TaskEvent(before == null ? Type.CREATED : Type.UPDATED, after.getId(), after);
+    }
+
+    /**
+     * @return event telling subscribers to reload
+     */
+    public static TaskEvent reset() {
+        return new TaskEvent(Type.RESET, null, null);
+    }
+}
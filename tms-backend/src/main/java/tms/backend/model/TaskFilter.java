@@ -0,0 +1,35 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Server side filter applied to task queries, null fields are ignored.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskFilter {
+    /**
+     * Match any of these statuses
+     */
+    private List<Status> statuses;
+    /**
+     * Inclusive lower bound of the due date
+     */
+    private LocalDateTime dueAfter;
+    /**
+     * Exclusive upper bound of the due date
+     */
+    private LocalDateTime dueBefore;
+    /**
+     * Match any of these task ids
+     */
+    private List<String> ids;
+
+}
@@ -0,0 +1,27 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A single page of tasks returned by keyset pagination.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskPage {
+    private List<Task> items;
+    /**
+     * Opaque cursor for the next page, null when this is the last page
+     */
+    private String next;
+    /**
+     * Opaque cursor for the previous page, null when this is the first page
+     */
+    private String prev;
+
+}
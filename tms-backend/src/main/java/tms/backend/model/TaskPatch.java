@@ -0,0 +1,26 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial update of a task, only the fields that are set are written.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskPatch {
+    private String title;
+    private String description;
+    private Status status;
+    private LocalDateTime due;
+    /**
+     * Version the client read, the patch is rejected if the task changed since, null to patch unconditionally
+     */
+    private Long version;
+
+}
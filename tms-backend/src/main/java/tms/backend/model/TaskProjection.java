@@ -0,0 +1,31 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.util.Set;
+
+/**
+ * Fields of a task list read from Mongo, the id and the sort keys are always included.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskProjection {
+    /**
+     * Fields that can be selected
+     */
+    public static final Set<String> FIELDS = Set.of("title", "description", "status", "due", "version");
+
+    /**
+     * Selected fields, null for all fields
+     */
+    private Set<String> fields;
+    /**
+     * Max number of characters of the description, longer ones are cut and end with an ellipsis, null to keep it
+     */
+    private Integer descriptionLength;
+
+}
@@ -0,0 +1,39 @@
+package tms.backend.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Task counts for the dashboard.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class TaskStats {
+    /**
+     * Day the overdue and due counts refer to
+     */
+    private LocalDate date;
+    private long total;
+    private Map<Status, Long> byStatus;
+    /**
+     * Tasks that are not closed and were due before today
+     */
+    private long overdue;
+    /**
+     * Tasks that are not closed per due day, one entry per day starting today
+     */
+    private List<DayCount> dueByDay;
+    /**
+     * When the counts were last computed from the whole collection, writes since then were applied to them
+     */
+    private Instant computedAt;
+
+}
@@ -0,0 +1,34 @@
+package tms.backend.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Marker left by a deleted task so the change feed can report the delete, kept for the tombstone retention.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@Document("task_tombstone")
+public class TaskTombstone {
+    /**
+     * Id of the deleted task
+     */
+    @Id
+    private String id;
+    /**
+     * Change sequence number of the delete
+     */
+    @Indexed
+    private Long seq;
+    @Indexed
+    private Instant deletedAt;
+
+}
@@ -0,0 +1,28 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * One update applied to every task matching a filter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class UpdateByQuery {
+    /**
+     * Tasks to update, at least one field must be set
+     */
+    private TaskFilter filter;
+    /**
+     * Fields to set, the version must be empty
+     */
+    private TaskPatch set;
+    /**
+     * Only count the tasks that would be modified
+     */
+    private boolean dryRun;
+
+}
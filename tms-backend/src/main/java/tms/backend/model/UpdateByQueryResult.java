@@ -0,0 +1,19 @@
+package tms.backend.model;
+
+import lombok.*;
+
+/**
+ * Counts of an update by query, tasks that already have the new values are not matched.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class UpdateByQueryResult {
+    private long matched;
+    private long modified;
+    private boolean dryRun;
+
+}
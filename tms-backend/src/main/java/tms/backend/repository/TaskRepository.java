@@ -1,10 +1,30 @@
 package tms.backend.repository;
 
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.repository.ListCrudRepository;
 import tms.backend.model.Task;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * MongoDB repositories.
  */
-public interface TaskRepository extends ListCrudRepository<Task, String> {
+public interface TaskRepository extends ListCrudRepository<Task, String>, TaskRepositoryCustom {
+
+    /**
+     * Stream all tasks from a server side cursor, the stream must be closed after use.
+     *
+     * @return tasks
+     */
+    @Meta(cursorBatchSize = 1000)
+    Stream<Task> streamAllBy();
+
+    /**
+     * Tasks written after a change sequence number, tasks never written since sequencing started have none.
+     *
+     * @param seq sequence number
+     * @return tasks in sequence order
+     */
+    List<Task> findBySeqGreaterThanOrderBySeq(long seq);
 }
@@ -0,0 +1,130 @@
+package tms.backend.repository;
+
+import org.springframework.data.domain.Sort;
+import tms.backend.model.BatchOperation;
+import tms.backend.model.BatchResult;
+import tms.backend.model.StatusDueCount;
+import tms.backend.model.Task;
+import tms.backend.model.TaskChange;
+import tms.backend.model.TaskFilter;
+import tms.backend.model.TaskPatch;
+import tms.backend.model.TaskProjection;
+import tms.backend.model.UpdateByQueryResult;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Task queries that are built dynamically and cannot be expressed as derived queries.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset page of tasks matching a filter.
+     *
+     * @param filter    filter, null fields are ignored
+     * @param sort      sort ending with the id
+     * @param position  sort key values of the task to continue from, null for the first page
+     * @param backwards walk the sort in reverse, tasks are then returned in reverse order
+     * @param limit     max number of tasks
+     * @return tasks in query order
+     */
+    default List<Task> findPage(TaskFilter filter, Sort sort, List<Object> position, boolean backwards, int limit) {
+        return findPage(filter, sort, position, backwards, limit, null);
+    }
+
+    /**
+     * Tasks whose title or description match a text search, most relevant first.
+     *
+     * @param text       search terms, quoted phrases and '-' negations as supported by Mongo text search
+     * @param filter     filter, null fields are ignored
+     * @param offset     number of matches to skip
+     * @param limit      max number of tasks
+     * @param projection fields to read, null for whole tasks
+     * @return tasks with their relevance score, ties ordered by id
+     */
+    List<Task> search(String text, TaskFilter filter, int offset, int limit, TaskProjection projection);
+
+    /**
+     * Keyset page of tasks matching a filter with only some fields read.
+     *
+     * @param filter     filter, null fields are ignored
+     * @param sort       sort ending with the id
+     * @param position   sort key values of the task to continue from, null for the first page
+     * @param backwards  walk the sort in reverse, tasks are then returned in reverse order
+     * @param limit      max number of tasks
+     * @param projection fields to read, null for whole tasks
+     * @return tasks in query order
+     */
+    List<Task> findPage(TaskFilter filter, Sort sort, List<Object> position, boolean backwards, int limit,
+                        TaskProjection projection);
+
+    /**
+     * Apply creates, updates and deletes as a single unordered bulk write.
+     * Invalid operations and deletes of missing tasks are reported and skipped, the remaining ones are still applied.
+     *
+     * @param operations operations
+     * @param seq        change sequence number stored on every written task
+     * @return per item results and totals
+     */
+    BatchResult bulkWrite(List<BatchOperation> operations, long seq);
+
+    /**
+     * Set the fields of a patch and increment the version in one atomic write.
+     *
+     * @param id    task id
+     * @param patch fields to set, null fields are left unchanged
+     * @param seq   change sequence number stored on the task
+     * @return task before and after the patch, null if no task has the id or the patch version is stale
+     */
+    TaskChange patch(String id, TaskPatch patch, long seq);
+
+    /**
+     * Number of tasks per status and due day, computed by the server in one aggregation.
+     *
+     * @param zone zone the due dates are cut into days in
+     * @return one count per status and due day present in the collection
+     */
+    List<StatusDueCount> countByStatusAndDueDay(ZoneId zone);
+
+    /**
+     * Set the fields of a patch on every task matching a filter with a single updateMulti.
+     * Tasks that already have all the new values are not matched.
+     *
+     * @param filter tasks to update
+     * @param set    fields to set, the version is ignored
+     * @param dryRun only count the tasks that would be modified
+     * @param seq    change sequence number stored on every modified task
+     * @return matched and modified counts
+     */
+    UpdateByQueryResult updateByQuery(TaskFilter filter, TaskPatch set, boolean dryRun, long seq);
+
+    /**
+     * Give tasks stored before versions were introduced version 0, so updates of them are not taken for inserts.
+     *
+     * @return number of tasks that got a version
+     */
+    long initMissingVersions();
+
+    /**
+     * Reserve a block of change sequence numbers with one atomic increment of the sequence document.
+     *
+     * @param count number of sequence numbers to reserve
+     * @return last reserved sequence number, the block ends with it
+     */
+    long reserveSequence(int count);
+
+    /**
+     * Lowest sequence number changes can still be listed after, deletes up to it may have been pruned.
+     *
+     * @return horizon, 0 while nothing was pruned
+     */
+    long getSequenceHorizon();
+
+    /**
+     * Move the horizon forward before pruning tombstones up to it, it never moves back.
+     *
+     * @param horizon highest sequence number of the pruned tombstones
+     */
+    void raiseSequenceHorizon(long horizon);
+}
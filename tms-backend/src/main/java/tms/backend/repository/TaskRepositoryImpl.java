@@ -0,0 +1,430 @@
+package tms.backend.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import tms.backend.model.BatchItemResult;
+import tms.backend.model.BatchOperation;
+import tms.backend.model.BatchResult;
+import tms.backend.model.Status;
+import tms.backend.model.StatusDueCount;
+import tms.backend.model.Task;
+import tms.backend.model.TaskChange;
+import tms.backend.model.TaskFilter;
+import tms.backend.model.TaskPatch;
+import tms.backend.model.TaskProjection;
+import tms.backend.model.UpdateByQueryResult;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * MongoTemplate backed implementation of {@link TaskRepositoryCustom}.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    /**
+     * Collection of the single document holding the change sequence and its horizon
+     */
+    private static final String SEQUENCE_COLLECTION = "task_sequence";
+
+    private static final String SEQUENCE_ID = "task";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Task> findPage(TaskFilter filter, Sort sort, List<Object> position, boolean backwards, int limit,
+                               TaskProjection projection) {
+        Sort effective = backwards ? reverse(sort) : sort;
+        List<Criteria> criteria = filterCriteria(filter);
+        if (position != null) {
+            criteria.add(keysetCriteria(effective, position));
+        }
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(effective).limit(limit);
+        if (projection != null) {
+            project(query, sort, projection);
+        }
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    @Override
+    public List<Task> search(String text, TaskFilter filter, int offset, int limit, TaskProjection projection) {
+        // the text index yields the matches, only they are scored and sorted
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text));
+        List<Criteria> criteria = filterCriteria(filter);
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        Sort tieBreaker = Sort.by("id");
+        query.sortByScore();
+        query.with(tieBreaker).skip(offset).limit(limit);
+        if (projection != null) {
+            project(query, tieBreaker, projection);
+        }
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    @Override
+    public TaskChange patch(String id, TaskPatch patch, long seq) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (patch.getVersion() != null) {
+            criteria.and("version").is(patch.getVersion());
+        }
+        // the write is atomic, so the patched task follows from the previous one without reading it again
+        Task before = mongoTemplate.findAndModify(new Query(criteria), setFields(patch).set("seq", seq),
+                FindAndModifyOptions.options().returnNew(false), Task.class);
+        if (before == null) {
+            return null;
+        }
+        Task after = Task.builder()
+                .id(before.getId())
+                .title(patch.getTitle() != null ? patch.getTitle() : before.getTitle())
+                .description(patch.getDescription() != null ? patch.getDescription() : before.getDescription())
+                .status(patch.getStatus() != null ? patch.getStatus() : before.getStatus())
+                .due(patch.getDue() != null ? patch.getDue() : before.getDue())
+                .version(before.getVersion() == null ? 1 : before.getVersion() + 1)
+                .seq(seq)
+                .build();
+        return new TaskChange(before, after);
+    }
+
+    @Override
+    public List<StatusDueCount> countByStatusAndDueDay(ZoneId zone) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("status")
+                        .and(DateOperators.dateOf("due")
+                                .withTimezone(DateOperators.Timezone.valueOf(zone.getId()))
+                                .toString("%Y-%m-%d"))
+                        .as("day"),
+                Aggregation.group("status", "day").count().as("count"));
+        List<StatusDueCount> counts = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Task.class, Document.class)) {
+            Document group = result.get("_id", Document.class);
+            String status = group.getString("status");
+            String day = group.getString("day");
+            counts.add(StatusDueCount.builder()
+                    .status(status == null ? null : Status.valueOf(status))
+                    .day(day == null ? null : LocalDate.parse(day))
+                    .count(result.get("count", Number.class).longValue())
+                    .build());
+        }
+        return counts;
+    }
+
+    @Override
+    public UpdateByQueryResult updateByQuery(TaskFilter filter, TaskPatch set, boolean dryRun, long seq) {
+        List<Criteria> criteria = filterCriteria(filter);
+        // tasks that already have every new value are left alone, their versions stay and reruns are no-ops
+        List<Criteria> differs = new ArrayList<>();
+        fieldValues(set).forEach((field, value) -> differs.add(Criteria.where(field).ne(value)));
+        criteria.add(differs.size() == 1 ? differs.get(0) : new Criteria().orOperator(differs));
+        Query query = new Query(new Criteria().andOperator(criteria));
+        if (dryRun) {
+            return UpdateByQueryResult.builder().matched(mongoTemplate.count(query, Task.class)).dryRun(true).build();
+        }
+        // every modified task gets the same sequence number, they are all listed as changed after it
+        UpdateResult result = mongoTemplate.updateMulti(query, setFields(set).set("seq", seq), Task.class);
+        return UpdateByQueryResult.builder()
+                .matched(result.getMatchedCount())
+                .modified(result.getModifiedCount())
+                .build();
+    }
+
+    @Override
+    public BatchResult bulkWrite(List<BatchOperation> operations, long seq) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class);
+        List<BatchItemResult> items = new ArrayList<>(operations.size());
+        // position of each queued write in the bulk -> index of the operation in the request
+        List<Integer> queued = new ArrayList<>(operations.size());
+        Set<String> deletable = existingIds(operations.stream()
+                .filter(operation -> operation.getType() == BatchOperation.Type.DELETE && operation.getId() != null)
+                .map(BatchOperation::getId)
+                .toList());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchItemResult item = queue(bulk, i, operations.get(i), seq, deletable);
+            if (item.getError() == null) {
+                queued.add(i);
+            }
+            items.add(item);
+        }
+        BatchResult result = BatchResult.builder().items(items).build();
+        if (queued.isEmpty()) {
+            result.setFailed(items.size());
+            return result;
+        }
+        BulkWriteResult writeResult;
+        try {
+            writeResult = bulk.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                BatchItemResult item = items.get(queued.get(error.getIndex()));
+                if (error.getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                    item.setStatus(HttpStatus.CONFLICT.value());
+                    item.setError(item.getType() == BatchOperation.Type.UPDATE
+                            ? "Task was modified concurrently" : "Task already exists");
+                } else {
+                    item.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                    item.setError(error.getMessage());
+                }
+            }
+        }
+        result.setInserted(writeResult.getInsertedCount());
+        result.setMatched(writeResult.getMatchedCount());
+        result.setModified(writeResult.getModifiedCount());
+        result.setUpserted(writeResult.getUpserts().size());
+        result.setDeleted(writeResult.getDeletedCount());
+        result.setFailed((int) items.stream().filter(item -> item.getError() != null).count());
+        return result;
+    }
+
+    @Override
+    public long initMissingVersions() {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Task.class).getModifiedCount();
+    }
+
+    @Override
+    public long reserveSequence(int count) {
+        Document sequence = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(SEQUENCE_ID)),
+                new Update().inc("seq", (long) count), FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, SEQUENCE_COLLECTION);
+        return sequence.get("seq", Number.class).longValue();
+    }
+
+    @Override
+    public long getSequenceHorizon() {
+        Document sequence = mongoTemplate.findById(SEQUENCE_ID, Document.class, SEQUENCE_COLLECTION);
+        Number horizon = sequence == null ? null : sequence.get("horizon", Number.class);
+        return horizon == null ? 0 : horizon.longValue();
+    }
+
+    @Override
+    public void raiseSequenceHorizon(long horizon) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(SEQUENCE_ID)),
+                new Update().max("horizon", horizon), SEQUENCE_COLLECTION);
+    }
+
+    /**
+     * Ids of the given tasks that exist, the bulk result only counts deletes and cannot tell which ids matched
+     */
+    private Set<String> existingIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Task.class).stream().map(Task::getId).collect(Collectors.toSet());
+    }
+
+    private static BatchItemResult queue(BulkOperations bulk, int index, BatchOperation operation, long seq,
+                                         Set<String> deletable) {
+        BatchItemResult item = BatchItemResult.builder().index(index).type(operation.getType()).build();
+        Task task = operation.getTask();
+        if (operation.getType() == null) {
+            return invalid(item, "Missing operation type");
+        }
+        switch (operation.getType()) {
+            case CREATE -> {
+                if (task == null) {
+                    return invalid(item, "Missing task");
+                }
+                if (task.getId() == null) {
+                    // ids are assigned here because bulk inserts do not report generated ids back
+                    task.setId(new ObjectId().toHexString());
+                }
+                // bulk writes bypass the repository, so versions are maintained by hand
+                task.setVersion(0L);
+                task.setSeq(seq);
+                bulk.insert(task);
+                item.setId(task.getId());
+                item.setVersion(task.getVersion());
+                item.setStatus(HttpStatus.CREATED.value());
+            }
+            case UPDATE -> {
+                if (task == null || task.getId() == null) {
+                    return invalid(item, "Missing task id");
+                }
+                // same semantics as PUT /tasks: without a version it is an insert, with a version the
+                // stored one must match, otherwise the upsert collides with the existing id
+                task.setSeq(seq);
+                if (task.getVersion() == null) {
+                    task.setVersion(0L);
+                    bulk.insert(task);
+                } else {
+                    Query current = Query.query(Criteria.where("id").is(task.getId())
+                            .and("version").is(task.getVersion()));
+                    task.setVersion(task.getVersion() + 1);
+                    bulk.replaceOne(current, task, FindAndReplaceOptions.options().upsert());
+                }
+                item.setId(task.getId());
+                item.setVersion(task.getVersion());
+                item.setStatus(HttpStatus.OK.value());
+            }
+            case DELETE -> {
+                if (operation.getId() == null) {
+                    return invalid(item, "Missing task id");
+                }
+                item.setId(operation.getId());
+                if (!deletable.contains(operation.getId())) {
+                    // same as DELETE /tasks/{id}, a task deleted concurrently after the lookup still reports 204
+                    item.setStatus(HttpStatus.NOT_FOUND.value());
+                    item.setError("Task not found");
+                    return item;
+                }
+                bulk.remove(Query.query(Criteria.where("id").is(operation.getId())));
+                item.setStatus(HttpStatus.NO_CONTENT.value());
+            }
+        }
+        return item;
+    }
+
+    private static BatchItemResult invalid(BatchItemResult item, String error) {
+        item.setStatus(HttpStatus.BAD_REQUEST.value());
+        item.setError(error);
+        return item;
+    }
+
+    /**
+     * Limit the returned fields, unselected fields are neither read into documents nor sent over the wire
+     */
+    private static void project(Query query, Sort sort, TaskProjection projection) {
+        Set<String> selected = projection.getFields() != null ? projection.getFields() : TaskProjection.FIELDS;
+        Field fields = query.fields();
+        for (String field : selected) {
+            if (!field.equals("description") || projection.getDescriptionLength() == null) {
+                fields.include(field);
+            }
+        }
+        // cursors are built from the sort keys of the first and last task
+        for (Sort.Order order : sort) {
+            fields.include(order.getProperty());
+        }
+        if (selected.contains("description") && projection.getDescriptionLength() != null) {
+            int length = projection.getDescriptionLength();
+            fields.project(MongoExpression.create("{$cond: {if: {$gt: [{$strLenCP: {$ifNull: ['$description', '']}}, "
+                    + length + "]}, then: {$concat: [{$substrCP: ['$description', 0, " + length + "]}, '\u2026']}, "
+                    + "else: '$description'}}")).as("description");
+        }
+    }
+
+    /**
+     * $set of the non null patch fields plus the version increment
+     */
+    private static Update setFields(TaskPatch patch) {
+        Update update = new Update();
+        fieldValues(patch).forEach(update::set);
+        return update.inc("version", 1);
+    }
+
+    private static Map<String, Object> fieldValues(TaskPatch patch) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (patch.getTitle() != null) {
+            values.put("title", patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            values.put("description", patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            values.put("status", patch.getStatus());
+        }
+        if (patch.getDue() != null) {
+            values.put("due", patch.getDue());
+        }
+        return values;
+    }
+
+    static List<Criteria> filterCriteria(TaskFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            criteria.add(Criteria.where("status").in(filter.getStatuses()));
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            criteria.add(Criteria.where("_id").in(filter.getIds()));
+        }
+        if (filter.getDueAfter() != null || filter.getDueBefore() != null) {
+            Criteria due = Criteria.where("due");
+            if (filter.getDueAfter() != null) {
+                due = due.gte(filter.getDueAfter());
+            }
+            if (filter.getDueBefore() != null) {
+                due = due.lt(filter.getDueBefore());
+            }
+            criteria.add(due);
+        }
+        return criteria;
+    }
+
+    /**
+     * Rows strictly after the position: (k1 > v1) or (k1 = v1 and k2 > v2) or ...
+     * Mongo sorts null before any value, which decides how null positions compare.
+     */
+    private static Criteria keysetCriteria(Sort sort, List<Object> position) {
+        List<Sort.Order> orders = sort.toList();
+        List<Criteria> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Criteria after = after(orders.get(i), position.get(i));
+            if (after == null) {
+                continue;
+            }
+            List<Criteria> conjunction = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conjunction.add(Criteria.where(orders.get(j).getProperty()).is(position.get(j)));
+            }
+            conjunction.add(after);
+            alternatives.add(conjunction.size() == 1 ? after : new Criteria().andOperator(conjunction));
+        }
+        return new Criteria().orOperator(alternatives);
+    }
+
+    private static Criteria after(Sort.Order order, Object value) {
+        String property = order.getProperty();
+        if (order.isAscending()) {
+            return value == null ? Criteria.where(property).ne(null) : Criteria.where(property).gt(value);
+        }
+        if (value == null) {
+            return null;
+        }
+        return new Criteria().orOperator(Criteria.where(property).lt(value), Criteria.where(property).is(null));
+    }
+
+    private static Sort reverse(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.with(order.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC))
+                .toList());
+    }
+}
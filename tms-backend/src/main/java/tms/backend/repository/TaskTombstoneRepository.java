@@ -0,0 +1,38 @@
+package tms.backend.repository;
+
+import org.springframework.data.repository.ListCrudRepository;
+import tms.backend.model.TaskTombstone;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MongoDB repository of deleted task markers.
+ */
+public interface TaskTombstoneRepository extends ListCrudRepository<TaskTombstone, String> {
+
+    /**
+     * Deletes made after a change sequence number.
+     *
+     * @param seq sequence number
+     * @return tombstones in sequence order
+     */
+    List<TaskTombstone> findBySeqGreaterThanOrderBySeq(long seq);
+
+    /**
+     * Newest tombstone, by sequence number, of the ones about to be pruned.
+     *
+     * @param deletedAt retention cutoff
+     * @return tombstone with the highest sequence number deleted before the cutoff
+     */
+    Optional<TaskTombstone> findFirstByDeletedAtBeforeOrderBySeqDesc(Instant deletedAt);
+
+    /**
+     * Prune tombstones past the retention.
+     *
+     * @param deletedAt retention cutoff
+     * @return number of removed tombstones
+     */
+    long deleteByDeletedAtBefore(Instant deletedAt);
+}
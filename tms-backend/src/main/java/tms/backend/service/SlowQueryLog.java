@@ -0,0 +1,279 @@
+package tms.backend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tms.backend.ApplicationProperties;
+import tms.backend.model.SlowQuery;
+import tms.backend.utils.QueryShape;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every Mongo command per shape, logs commands above the slow query threshold and captures
+ * the winning plan of a slow shape once, on its next slow execution after the first.
+ * Only commands of shapes already seen slow are copied for explain, fast shapes cost the shape walk alone.
+ * Explains run on a single background thread and at most once per explain interval,
+ * so a burst of slow queries does not add load to an already struggling server.
+ * Captured plans have their filter literals and index bounds redacted like the shapes.
+ */
+@Slf4j
+@Service
+public class SlowQueryLog implements CommandListener {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    /**
+     * Resolved lazily, the client is built with this listener registered
+     */
+    @Autowired
+    private ObjectProvider<MongoClient> mongoClient;
+
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextExplain = new AtomicLong(System.nanoTime());
+
+    private final ExecutorService explainer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tms-explain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument shape = QueryShape.of(event.getCommandName(), event.getCommand());
+        if (shape == null) {
+            return;
+        }
+        String key = shape.toJson();
+        Shape known = shapes.get(key);
+        // the command document is only valid during this call, copy it only for slow shapes still missing a plan
+        boolean needsPlan = known != null && known.slow && !known.explained.get();
+        BsonDocument explain = needsPlan && QueryShape.explainable(event.getCommandName())
+                ? QueryShape.explainCommand(event.getCommandName(), event.getCommand())
+                : null;
+        pending.put(event.getRequestId(), new Pending(key, event.getCommandName(), event.getDatabaseName(), explain));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Slowest command shapes seen since startup
+     *
+     * @param limit max number of shapes
+     * @return shapes ordered by their slowest execution
+     */
+    public List<SlowQuery> slowest(int limit) {
+        List<SlowQuery> result = new ArrayList<>();
+        for (Shape shape : shapes.values()) {
+            result.add(shape.snapshot());
+        }
+        result.sort(Comparator.comparingDouble(SlowQuery::getMaxMillis).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    /**
+     * Record one execution of a shape
+     *
+     * @param key     shape
+     * @param command command name
+     * @param database database name
+     * @param nanos   duration
+     * @return true if the execution was slow
+     */
+    boolean record(String key, String command, String database, long nanos) {
+        Shape shape = shapes.get(key);
+        if (shape == null) {
+            if (shapes.size() >= applicationProperties.getSlowQueries().getMaxShapes()) {
+                return false;
+            }
+            shape = shapes.computeIfAbsent(key, k -> new Shape(k, command, database));
+        }
+        shape.count.increment();
+        shape.totalNanos.add(nanos);
+        shape.maxNanos.accumulate(nanos);
+        if (nanos < applicationProperties.getSlowQueries().getThreshold().toNanos()) {
+            return false;
+        }
+        shape.slowCount.increment();
+        shape.slow = true;
+        shape.lastSlow = Instant.now();
+        return true;
+    }
+
+    private void complete(int requestId, long nanos) {
+        Pending command = pending.remove(requestId);
+        if (command == null || !record(command.shape(), command.command(), command.database(), nanos)) {
+            return;
+        }
+        log.warn("Slow Mongo command took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), command.shape());
+        Shape shape = shapes.get(command.shape());
+        if (command.explain() != null && shape != null && !shape.explained.get() && acquireExplain()
+                && shape.explained.compareAndSet(false, true)) {
+            explainer.execute(() -> explain(shape, command));
+        }
+    }
+
+    private boolean acquireExplain() {
+        long now = System.nanoTime();
+        long next = nextExplain.get();
+        return now - next >= 0 && nextExplain.compareAndSet(next,
+                now + applicationProperties.getSlowQueries().getExplainInterval().toNanos());
+    }
+
+    private void explain(Shape shape, Pending command) {
+        try {
+            BsonDocument result = mongoClient.getObject().getDatabase(command.database())
+                    .runCommand(new BsonDocument("explain", command.explain())
+                            .append("verbosity", new BsonString("queryPlanner")), BsonDocument.class);
+            BsonDocument plan = winningPlan(result);
+            if (plan == null) {
+                log.info("Explain of {} returned no plan", shape.key);
+                return;
+            }
+            shape.planSummary = summary(plan);
+            shape.plan = Document.parse(QueryShape.redactPlan(plan).toJson());
+            log.info("Captured plan {} for {}", shape.planSummary, shape.key);
+        } catch (RuntimeException e) {
+            // allow another attempt on the next slow execution
+            shape.explained.set(false);
+            log.warn("Explain of {} failed: {}", shape.key, e.getMessage());
+        }
+    }
+
+    /**
+     * Winning plan of an explain result, aggregations nest the planner output inside their first stage
+     */
+    static BsonDocument winningPlan(BsonDocument explain) {
+        BsonDocument planner = find(explain, "queryPlanner");
+        if (planner == null || !planner.isDocument("winningPlan")) {
+            return null;
+        }
+        BsonDocument plan = planner.getDocument("winningPlan");
+        // the slot based engine wraps the classic plan tree
+        return plan.isDocument("queryPlan") ? plan.getDocument("queryPlan") : plan;
+    }
+
+    /**
+     * Stage chain of a plan from the root down, e.g. "FETCH <- IXSCAN status_1_due_1"
+     */
+    static String summary(BsonDocument plan) {
+        StringBuilder summary = new StringBuilder(plan.getString("stage", new BsonString("?")).getValue());
+        if (plan.isString("indexName")) {
+            summary.append(' ').append(plan.getString("indexName").getValue());
+        }
+        if (plan.isDocument("inputStage")) {
+            summary.append(" <- ").append(summary(plan.getDocument("inputStage")));
+        } else if (plan.isArray("inputStages")) {
+            List<String> inputs = new ArrayList<>();
+            for (BsonValue input : plan.getArray("inputStages")) {
+                if (input.isDocument()) {
+                    inputs.add(summary(input.asDocument()));
+                }
+            }
+            summary.append(" <- ").append(inputs);
+        }
+        return summary.toString();
+    }
+
+    private static BsonDocument find(BsonDocument document, String key) {
+        if (document.isDocument(key)) {
+            return document.getDocument(key);
+        }
+        for (BsonValue value : document.values()) {
+            BsonDocument found = null;
+            if (value.isDocument()) {
+                found = find(value.asDocument(), key);
+            } else if (value.isArray()) {
+                for (BsonValue element : value.asArray()) {
+                    if (element.isDocument() && (found = find(element.asDocument(), key)) != null) {
+                        break;
+                    }
+                }
+            }
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private record Pending(String shape, String command, String database, BsonDocument explain) {
+    }
+
+    private static class Shape {
+        private final String key;
+        private final String command;
+        private final String database;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicBoolean explained = new AtomicBoolean();
+        private volatile boolean slow;
+        private volatile Instant lastSlow;
+        private volatile String planSummary;
+        private volatile Document plan;
+
+        Shape(String key, String command, String database) {
+            this.key = key;
+            this.command = command;
+            this.database = database;
+        }
+
+        SlowQuery snapshot() {
+            long executions = count.sum();
+            return SlowQuery.builder()
+                    .shape(key)
+                    .command(command)
+                    .database(database)
+                    .count(executions)
+                    .slowCount(slowCount.sum())
+                    .meanMillis(executions == 0 ? 0 : totalNanos.sum() / 1e6 / executions)
+                    .maxMillis(maxNanos.get() / 1e6)
+                    .lastSlow(lastSlow)
+                    .planSummary(planSummary)
+                    .plan(plan)
+                    .build();
+        }
+    }
+}
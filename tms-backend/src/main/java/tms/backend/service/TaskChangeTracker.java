@@ -0,0 +1,61 @@
+package tms.backend.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts writes to the task collection to derive a collection level ETag.
+ * The counter lives in memory, the boot id keeps tags from different runs or instances apart,
+ * it assumes all writes go through this backend instance.
+ */
+@Service
+public class TaskChangeTracker {
+
+    private final String bootId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Record a completed write, must be called after the write is visible to readers
+     */
+    public void recordChange() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Strong ETag for the current state of the collection
+     *
+     * @return quoted ETag
+     */
+    public String collectionTag() {
+        return "\"" + bootId + "-" + changes.get() + "\"";
+    }
+
+    /**
+     * Strong ETag for a view derived from the collection that also depends on other inputs
+     *
+     * @param collectionTag collection tag read before the view was computed
+     * @param inputs        other inputs of the view
+     * @return quoted ETag
+     */
+    public static String derivedTag(String collectionTag, Object... inputs) {
+        StringBuilder tag = new StringBuilder(collectionTag, 0, collectionTag.length() - 1);
+        for (Object input : inputs) {
+            tag.append('-').append(input);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Strong ETag for a single task
+     *
+     * @param id      task id
+     * @param version task version
+     * @return quoted ETag
+     */
+    public static String taskTag(String id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+}
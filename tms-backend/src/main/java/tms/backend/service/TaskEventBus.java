@@ -0,0 +1,90 @@
+package tms.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tms.backend.ApplicationProperties;
+import tms.backend.model.TaskEvent;
+import tms.common.service.SseBroadcaster;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In process bus pushing task events to Server-Sent Events subscribers, through a {@link SseBroadcaster}
+ * so a slow client never delays a write.
+ * Like {@link TaskChangeTracker} it assumes all writes go through this backend instance.
+ */
+@Slf4j
+@Service
+public class TaskEventBus {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    /**
+     * Event ids of another run never match the last id of this one
+     */
+    private final String bootId = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private SseBroadcaster broadcaster;
+
+    @PostConstruct
+    private void init() {
+        ApplicationProperties.Events events = applicationProperties.getEvents();
+        broadcaster = new SseBroadcaster(events.getBufferSize(), events.getHeartbeatInterval(), events.getTimeout(),
+                json(TaskEvent.reset()));
+    }
+
+    /**
+     * Open a stream of task events
+     *
+     * @param lastEventId id of the last event a reconnecting client received, null for a new client
+     * @return emitter completing when the client goes away, the stream times out or the client falls behind
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = broadcaster.subscribe(lastEventId);
+        log.info("Task event subscriber connected, {} subscribers", broadcaster.getSubscribers());
+        return emitter;
+    }
+
+    /**
+     * Push an event to all subscribers, must be called after the write is visible to readers
+     *
+     * @param event task event
+     */
+    public void publish(TaskEvent event) {
+        // serialized once and shared by all subscribers
+        broadcaster.publish(event.getType().name(), bootId + "-" + sequence.incrementAndGet(), json(event));
+    }
+
+    /**
+     * @return number of connected subscribers
+     */
+    public int getSubscribers() {
+        return broadcaster.getSubscribers();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        broadcaster.close();
+    }
+
+    private String json(TaskEvent event) {
+        try {
+            return mapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package tms.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tms.backend.repository.TaskRepository;
+
+/**
+ * Brings tasks stored by older releases up to the current document shape at startup.
+ */
+@Slf4j
+@Service
+public class TaskMigration {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @PostConstruct
+    private void migrate() {
+        // without a stored version Spring Data saves an edited task as a new one, which fails on the existing id
+        long versioned = taskRepository.initMissingVersions();
+        if (versioned > 0) {
+            log.info("Set version 0 on {} tasks stored without one", versioned);
+        }
+    }
+}
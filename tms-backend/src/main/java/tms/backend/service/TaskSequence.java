@@ -0,0 +1,138 @@
+package tms.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tms.backend.ApplicationProperties;
+import tms.backend.model.TaskTombstone;
+import tms.backend.repository.TaskRepository;
+import tms.backend.repository.TaskTombstoneRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out the change sequence numbers stored on written tasks and tombstones.
+ * Numbers are reserved in blocks from a Mongo document, so they keep growing across restarts
+ * while a write only pays for a Mongo round trip once per block, unused numbers of a block are skipped.
+ * Writes finish out of order, the committed sequence number is the highest one below every write
+ * still running, so a client syncing up to it never skips a write that lands later.
+ * Like {@link TaskChangeTracker} it assumes all writes go through this backend instance.
+ */
+@Slf4j
+@Service
+public class TaskSequence {
+
+    /**
+     * Sequence numbers reserved with one Mongo write
+     */
+    static final int BLOCK_SIZE = 1000;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    // guarded by this
+    private long next;
+    private long reserved;
+    private long last;
+    private final TreeSet<Long> running = new TreeSet<>();
+
+    private volatile long horizon;
+
+    private final ScheduledExecutorService pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tms-tombstone-pruner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    private void init() {
+        reserve();
+        // everything before the first block belongs to previous runs, which have finished
+        last = next - 1;
+        horizon = taskRepository.getSequenceHorizon();
+        long interval = applicationProperties.getChanges().getPruneInterval().toMillis();
+        pruner.scheduleWithFixedDelay(this::prune, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        pruner.shutdownNow();
+    }
+
+    /**
+     * Start a write, the number must be released with {@link #end(long)} whether the write succeeded or not
+     *
+     * @return sequence number to store with the write
+     */
+    public synchronized long begin() {
+        if (next > reserved) {
+            reserve();
+        }
+        long seq = next++;
+        last = seq;
+        running.add(seq);
+        return seq;
+    }
+
+    /**
+     * Finish a write, it has to be visible to readers by now
+     *
+     * @param seq sequence number returned by {@link #begin()}
+     */
+    public synchronized void end(long seq) {
+        running.remove(seq);
+    }
+
+    /**
+     * @return highest sequence number with every write up to it finished
+     */
+    public synchronized long committed() {
+        return running.isEmpty() ? last : running.first() - 1;
+    }
+
+    /**
+     * @return lowest sequence number changes can be listed after, older deletes may have been pruned
+     */
+    public long getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Remove the tombstones past the retention, after moving the horizon over them
+     */
+    void prune() {
+        try {
+            Instant cutoff = Instant.now().minus(applicationProperties.getChanges().getTombstoneRetention());
+            Optional<TaskTombstone> newest = tombstoneRepository.findFirstByDeletedAtBeforeOrderBySeqDesc(cutoff);
+            if (newest.isEmpty()) {
+                return;
+            }
+            // the horizon is stored first, a crash in between leaves tombstones behind rather than a hole
+            long pruned = newest.get().getSeq();
+            taskRepository.raiseSequenceHorizon(pruned);
+            horizon = Math.max(horizon, pruned);
+            long count = tombstoneRepository.deleteByDeletedAtBefore(cutoff);
+            log.info("Pruned {} task tombstones, changes are listed after sequence {}", count, horizon);
+        } catch (RuntimeException e) {
+            log.warn("Could not prune task tombstones: {}", e.getMessage());
+        }
+    }
+
+    private void reserve() {
+        reserved = taskRepository.reserveSequence(BLOCK_SIZE);
+        next = reserved - BLOCK_SIZE + 1;
+    }
+}
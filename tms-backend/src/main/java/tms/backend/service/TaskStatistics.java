@@ -0,0 +1,177 @@
+package tms.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tms.backend.ApplicationProperties;
+import tms.backend.model.DayCount;
+import tms.backend.model.Status;
+import tms.backend.model.StatusDueCount;
+import tms.backend.model.Task;
+import tms.backend.model.TaskStats;
+import tms.backend.repository.TaskRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard counts computed once with an aggregation and then kept up to date by the single task writes,
+ * so reading them costs nothing but building a small snapshot after a change.
+ * Bulk writes cannot tell what they changed and make the next read run the aggregation again,
+ * the aggregation also reruns after the refresh interval to correct any drift.
+ * Like {@link TaskChangeTracker} it assumes all writes go through this backend instance.
+ */
+@Slf4j
+@Service
+public class TaskStatistics {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final Object refreshLock = new Object();
+
+    // guarded by this
+    private final Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+    private final TreeMap<LocalDate, Long> openByDay = new TreeMap<>();
+    private long total;
+    private long writes;
+    private boolean stale = true;
+    private Instant computedAt;
+
+    private volatile TaskStats snapshot;
+
+    /**
+     * Current counts, computed with an aggregation only on first use, after bulk writes and after the refresh interval
+     *
+     * @return TaskStats
+     */
+    public TaskStats get() {
+        LocalDate today = LocalDate.now(zone);
+        TaskStats current = snapshot;
+        if (current != null && current.getDate().equals(today) && !expired(current.getComputedAt())) {
+            return current;
+        }
+        synchronized (this) {
+            if (!stale && !expired(computedAt)) {
+                snapshot = build(today);
+                return snapshot;
+            }
+        }
+        // concurrent readers of stale counts wait for one aggregation instead of running their own
+        synchronized (refreshLock) {
+            long generation;
+            synchronized (this) {
+                if (!stale && !expired(computedAt)) {
+                    snapshot = build(today);
+                    return snapshot;
+                }
+                generation = writes;
+            }
+            List<StatusDueCount> counts = taskRepository.countByStatusAndDueDay(zone);
+            synchronized (this) {
+                load(counts);
+                // a write that landed while the aggregation ran may be counted twice or not at all
+                stale = writes != generation;
+                TaskStats stats = build(today);
+                snapshot = stale ? null : stats;
+                log.info("Computed task statistics over {} tasks", total);
+                return stats;
+            }
+        }
+    }
+
+    /**
+     * Apply a single task write to the counts, must be called after the write succeeded
+     *
+     * @param before task before the write, null for a created task
+     * @param after  task after the write, null for a deleted task
+     */
+    public synchronized void record(Task before, Task after) {
+        writes++;
+        if (!stale) {
+            if (before != null) {
+                add(before, -1);
+            }
+            if (after != null) {
+                add(after, 1);
+            }
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Recompute the counts on the next read, for writes that do not know which tasks they changed
+     */
+    public synchronized void invalidate() {
+        writes++;
+        stale = true;
+        snapshot = null;
+    }
+
+    private boolean expired(Instant computed) {
+        return computed == null
+                || computed.plus(applicationProperties.getStatistics().getRefreshInterval()).isBefore(Instant.now());
+    }
+
+    private void load(List<StatusDueCount> counts) {
+        byStatus.clear();
+        openByDay.clear();
+        total = 0;
+        for (StatusDueCount count : counts) {
+            add(count.getStatus(), count.getDay(), count.getCount());
+        }
+        computedAt = Instant.now();
+    }
+
+    private void add(Task task, long delta) {
+        add(task.getStatus(), task.getDue() == null ? null : task.getDue().toLocalDate(), delta);
+    }
+
+    private void add(Status status, LocalDate day, long delta) {
+        total += delta;
+        if (status != null) {
+            byStatus.merge(status, delta, Long::sum);
+        }
+        if (status != Status.CLOSED && day != null) {
+            // days without open tasks are dropped so the map only grows with distinct due days in use
+            openByDay.merge(day, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private TaskStats build(LocalDate today) {
+        long overdue = 0;
+        for (long count : openByDay.headMap(today).values()) {
+            overdue += count;
+        }
+        int days = applicationProperties.getStatistics().getDueDays();
+        List<DayCount> dueByDay = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            LocalDate day = today.plusDays(i);
+            dueByDay.add(new DayCount(day, openByDay.getOrDefault(day, 0L)));
+        }
+        Map<Status, Long> statuses = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            statuses.put(status, byStatus.getOrDefault(status, 0L));
+        }
+        return TaskStats.builder()
+                .date(today)
+                .total(total)
+                .byStatus(Collections.unmodifiableMap(statuses))
+                .overdue(overdue)
+                .dueByDay(Collections.unmodifiableList(dueByDay))
+                .computedAt(computedAt)
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package tms.backend.utils;
+
+import org.springframework.data.domain.Sort;
+import tms.backend.model.Status;
+import tms.backend.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination.
+ * A cursor holds the sort it was created for and the sort key values of a task,
+ * clients must treat it as an opaque string and pass it back unchanged.
+ * Relevance ranked search results have no sort keys to continue from, their cursors hold an offset.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL = "~";
+    private static final String OFFSET = "@";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode the position of a task within a sort
+     *
+     * @param sort sort ending with the id, see {@link SortParser}
+     * @param task task
+     * @return opaque cursor
+     */
+    public static String encode(Sort sort, Task task) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        joiner.add(SortParser.format(sort));
+        for (Sort.Order order : sort) {
+            Object value = valueOf(task, order.getProperty());
+            joiner.add(value == null ? NULL : value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor to the sort key values it holds
+     *
+     * @param cursor opaque cursor
+     * @param sort   sort the cursor must have been created for
+     * @return one value per sort order
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort
+     */
+    public static List<Object> decode(String cursor, Sort sort) {
+        String raw = raw(cursor);
+        List<Sort.Order> orders = sort.toList();
+        // the id comes last and is the only value that may contain the separator
+        String[] parts = raw.split("\\" + SEPARATOR, orders.size() + 1);
+        if (parts.length != orders.size() + 1 || !parts[0].equals(SortParser.format(sort))) {
+            throw new IllegalArgumentException("Cursor does not match sort");
+        }
+        List<Object> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            values.add(parse(orders.get(i).getProperty(), parts[i + 1]));
+        }
+        return values;
+    }
+
+    /**
+     * Encode the position of a page within search results
+     *
+     * @param offset number of results before the page
+     * @return opaque cursor
+     */
+    public static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((OFFSET + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a search cursor to the offset it holds
+     *
+     * @param cursor opaque cursor
+     * @return number of results before the page
+     * @throws IllegalArgumentException if the cursor is malformed or not a search cursor
+     */
+    public static int decodeOffset(String cursor) {
+        String raw = raw(cursor);
+        if (!raw.startsWith(OFFSET)) {
+            throw new IllegalArgumentException("Not a search cursor");
+        }
+        int offset;
+        try {
+            offset = Integer.parseInt(raw.substring(OFFSET.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor offset", e);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative cursor offset");
+        }
+        return offset;
+    }
+
+    private static String raw(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    private static Object valueOf(Task task, String property) {
+        return switch (property) {
+            case "due" -> task.getDue();
+            case "status" -> task.getStatus();
+            case "id" -> task.getId();
+            default -> throw new IllegalArgumentException("Unknown sort key: " + property);
+        };
+    }
+
+    private static Object parse(String property, String value) {
+        if (property.equals("id")) {
+            if (value.isBlank()) {
+                throw new IllegalArgumentException("Empty cursor id");
+            }
+            return value;
+        }
+        if (value.equals(NULL)) {
+            return null;
+        }
+        // tampered values must fail like any other malformed cursor, DateTimeException is no IllegalArgumentException
+        try {
+            return switch (property) {
+                case "due" -> LocalDateTime.parse(value);
+                case "status" -> Status.valueOf(value);
+                default -> throw new IllegalArgumentException("Unknown sort key: " + property);
+            };
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Malformed cursor value for " + property, e);
+        }
+    }
+}
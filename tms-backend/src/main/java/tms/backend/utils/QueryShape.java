@@ -0,0 +1,198 @@
+package tms.backend.utils;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces a Mongo command to its shape: command, collection, field names and operators are kept,
+ * literal values are replaced by "?" so commands differing only in their values share one shape
+ * and no task data ends up in logs.
+ */
+public final class QueryShape {
+
+    private static final BsonString REDACTED = new BsonString("?");
+
+    /**
+     * Handshake, auth and cursor housekeeping commands, explain is ignored so capturing plans is not traced itself
+     */
+    private static final Set<String> IGNORED = Set.of("hello", "isMaster", "ismaster", "ping", "buildInfo",
+            "saslStart", "saslContinue", "endSessions", "killCursors", "explain", "getLastError");
+
+    /**
+     * Commands mongod can explain
+     */
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct",
+            "findAndModify", "update", "delete");
+
+    /**
+     * Fields whose values are structure (field names, sort directions) rather than data
+     */
+    private static final Set<String> STRUCTURAL = Set.of("sort", "projection", "hint", "key", "$sort", "$project");
+
+    private QueryShape() {
+    }
+
+    /**
+     * Shape of a command
+     *
+     * @param commandName command name
+     * @param command     command document as sent to the server
+     * @return shape document, null for commands that are not traced
+     */
+    public static BsonDocument of(String commandName, BsonDocument command) {
+        if (IGNORED.contains(commandName)) {
+            return null;
+        }
+        BsonDocument shape = new BsonDocument();
+        BsonValue target = command.get(commandName);
+        shape.append(commandName, target != null && target.isString() ? target : REDACTED);
+        switch (commandName) {
+            case "find" -> copy(command, shape, "filter", "sort", "projection", "hint", "limit", "skip");
+            case "aggregate" -> copy(command, shape, "pipeline");
+            case "count", "distinct" -> copy(command, shape, "key", "query");
+            case "findAndModify" -> copy(command, shape, "query", "sort", "update", "remove", "upsert");
+            case "update" -> copy(first(command, "updates"), shape, "q", "u", "multi", "upsert");
+            case "delete" -> copy(first(command, "deletes"), shape, "q", "limit");
+            case "getMore" -> copy(command, shape, "collection");
+            default -> {
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Whether the server can explain the command
+     *
+     * @param commandName command name
+     * @return true if explainable
+     */
+    public static boolean explainable(String commandName) {
+        return EXPLAINABLE.contains(commandName);
+    }
+
+    /**
+     * Copy of a command that can be wrapped in an explain, driver generated fields are dropped
+     * and write commands are cut down to their first statement.
+     *
+     * @param commandName command name
+     * @param command     command document as sent to the server
+     * @return explainable command
+     */
+    public static BsonDocument explainCommand(String commandName, BsonDocument command) {
+        BsonDocument copy = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber")
+                    || key.equals("apiVersion") || key.equals("apiStrict") || key.equals("apiDeprecationErrors")) {
+                continue;
+            }
+            if ((key.equals("updates") || key.equals("deletes")) && entry.getValue().isArray()) {
+                BsonArray statements = entry.getValue().asArray();
+                copy.append(key, statements.isEmpty() ? new BsonArray() : new BsonArray(statements.subList(0, 1)));
+                continue;
+            }
+            copy.append(key, entry.getValue());
+        }
+        return copy.clone();
+    }
+
+    /**
+     * Copy of an explain plan without data: stage filters are redacted like shapes, index bounds are
+     * replaced by "?" per field, stages, index names and key patterns are kept.
+     *
+     * @param plan winning plan
+     * @return redacted plan
+     */
+    public static BsonDocument redactPlan(BsonDocument plan) {
+        BsonDocument redacted = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : plan.entrySet()) {
+            BsonValue value = entry.getValue();
+            switch (entry.getKey()) {
+                case "filter" -> redacted.append("filter", redact(value));
+                case "indexBounds" -> {
+                    BsonDocument bounds = new BsonDocument();
+                    if (value.isDocument()) {
+                        for (String field : value.asDocument().keySet()) {
+                            bounds.append(field, new BsonArray(List.of(REDACTED)));
+                        }
+                    }
+                    redacted.append("indexBounds", bounds);
+                }
+                default -> redacted.append(entry.getKey(), redactPlanValue(value));
+            }
+        }
+        return redacted;
+    }
+
+    private static BsonValue redactPlanValue(BsonValue value) {
+        if (value.isDocument()) {
+            return redactPlan(value.asDocument());
+        }
+        if (value.isArray()) {
+            BsonArray redacted = new BsonArray();
+            value.asArray().forEach(element -> redacted.add(redactPlanValue(element)));
+            return redacted;
+        }
+        return value;
+    }
+
+    private static BsonDocument first(BsonDocument command, String statements) {
+        BsonValue value = command.get(statements);
+        if (value == null || !value.isArray() || value.asArray().isEmpty() || !value.asArray().get(0).isDocument()) {
+            return new BsonDocument();
+        }
+        return value.asArray().get(0).asDocument();
+    }
+
+    private static void copy(BsonDocument source, BsonDocument shape, String... fields) {
+        for (String field : fields) {
+            BsonValue value = source.get(field);
+            if (value != null) {
+                shape.append(field, STRUCTURAL.contains(field) ? detach(value) : redact(value));
+            }
+        }
+    }
+
+    /**
+     * The command document is only valid while the listener runs, containers have to be copied
+     */
+    private static BsonValue detach(BsonValue value) {
+        if (value.isDocument()) {
+            return value.asDocument().clone();
+        }
+        return value.isArray() ? value.asArray().clone() : value;
+    }
+
+    private static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                redacted.append(entry.getKey(), STRUCTURAL.contains(entry.getKey())
+                        ? detach(entry.getValue()) : redact(entry.getValue()));
+            }
+            return redacted;
+        }
+        if (value.isArray()) {
+            // lists of literals ($in, $nin) collapse to one element so their length does not change the shape
+            BsonArray redacted = new BsonArray();
+            boolean literals = true;
+            for (BsonValue element : value.asArray()) {
+                BsonValue item = redact(element);
+                literals &= REDACTED.equals(item);
+                redacted.add(item);
+            }
+            return literals && !redacted.isEmpty() ? new BsonArray(List.of(REDACTED)) : redacted;
+        }
+        // field paths such as "$status" in aggregation expressions are structure
+        if (value.isString() && value.asString().getValue().startsWith("$")) {
+            return value;
+        }
+        return REDACTED;
+    }
+}
@@ -0,0 +1,72 @@
+package tms.backend.utils;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Parses the sort query parameter, e.g. "due,-status", into a Spring Data sort.
+ * The task id is always appended as a tie breaker so keyset pagination is stable.
+ */
+public final class SortParser {
+
+    private static final String ID = "id";
+    private static final Set<String> SORTABLE = Set.of("due", "status", ID);
+
+    private SortParser() {
+    }
+
+    /**
+     * Parse a sort specification
+     *
+     * @param spec comma separated keys, a leading '-' means descending, null means id order
+     * @return sort ending with the id
+     * @throws IllegalArgumentException for unknown or repeated keys, or keys following the id
+     */
+    public static Sort parse(String spec) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (spec != null && !spec.isBlank()) {
+            for (String token : spec.split(",")) {
+                String key = token.trim();
+                Sort.Direction direction = Sort.Direction.ASC;
+                if (key.startsWith("-")) {
+                    direction = Sort.Direction.DESC;
+                    key = key.substring(1);
+                }
+                if (!SORTABLE.contains(key)) {
+                    throw new IllegalArgumentException("Unknown sort key: " + key);
+                }
+                String property = key;
+                if (orders.stream().anyMatch(order -> order.getProperty().equals(property))) {
+                    throw new IllegalArgumentException("Repeated sort key: " + key);
+                }
+                if (orders.stream().anyMatch(order -> order.getProperty().equals(ID))) {
+                    // the id is unique, keys after it would never be compared
+                    throw new IllegalArgumentException("The id must be the last sort key");
+                }
+                orders.add(new Sort.Order(direction, key));
+            }
+        }
+        if (orders.stream().noneMatch(order -> order.getProperty().equals(ID))) {
+            orders.add(Sort.Order.asc(ID));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Format a sort back to its canonical specification
+     *
+     * @param sort sort
+     * @return specification
+     */
+    public static String format(Sort sort) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Sort.Order order : sort) {
+            joiner.add((order.isAscending() ? "" : "-") + order.getProperty());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package tms.backend.utils;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Adds the trace id of the server span to every response, so a slow call seen by a client can be
+ * looked up in logs and exported spans.
+ * Runs inside the HTTP server observation, which already continued the caller's traceparent.
+ */
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    /**
+     * Response header carrying the trace id
+     */
+    public static final String HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    /**
+     * @param tracer tracer
+     */
+    public TraceIdFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.currentSpan();
+        if (span != null && !span.context().traceId().isEmpty()) {
+            response.setHeader(HEADER, span.context().traceId());
+        }
+        chain.doFilter(request, response);
+    }
+}
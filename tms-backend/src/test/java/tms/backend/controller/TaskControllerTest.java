@@ -6,32 +6,84 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tms.backend.model.BatchItemResult;
+import tms.backend.model.BatchOperation;
+import tms.backend.model.BatchResult;
 import tms.backend.model.Status;
 import tms.backend.model.Task;
+import tms.backend.model.TaskChange;
+import tms.backend.model.TaskEvent;
+import tms.backend.model.TaskFilter;
+import tms.backend.model.TaskPatch;
+import tms.backend.model.TaskProjection;
+import tms.backend.model.TaskStats;
+import tms.backend.model.TaskTombstone;
+import tms.backend.model.UpdateByQueryResult;
 import tms.backend.repository.TaskRepository;
+import tms.backend.repository.TaskTombstoneRepository;
+import tms.backend.service.TaskChangeTracker;
+import tms.backend.service.TaskEventBus;
+import tms.backend.service.TaskSequence;
+import tms.backend.service.TaskStatistics;
+import tms.backend.utils.CursorCodec;
+import tms.backend.utils.SortParser;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import(TaskChangeTracker.class)
 public class TaskControllerTest {
 
+    private static final Sort ID_SORT = SortParser.parse(null);
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private TaskRepository taskRepository;
 
+    @MockBean
+    private TaskStatistics statistics;
+
+    @MockBean
+    private TaskEventBus eventBus;
+
+    @MockBean
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @MockBean
+    private TaskSequence sequence;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -60,6 +112,209 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$", hasSize(3)));
     }
 
+    @Test
+    void getTaskPage() throws Exception {
+        when(taskRepository.findPage(any(TaskFilter.class), eq(ID_SORT), isNull(), eq(false), eq(3), isNull()))
+                .thenReturn(tasks);
+        mockMvc.perform(get("/tasks/page?limit=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.next").value(CursorCodec.encode(ID_SORT, tasks.get(1))))
+                .andExpect(jsonPath("$.prev").value(nullValue()));
+    }
+
+    @Test
+    void getTaskPageAfter() throws Exception {
+        String cursor = CursorCodec.encode(ID_SORT, tasks.get(0));
+        when(taskRepository.findPage(any(TaskFilter.class), eq(ID_SORT), eq(List.of("0")), eq(false), eq(3),
+                isNull()))
+                .thenReturn(tasks.subList(1, 3));
+        mockMvc.perform(get("/tasks/page").param("after", cursor).param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.next").value(nullValue()))
+                .andExpect(jsonPath("$.prev").value(CursorCodec.encode(ID_SORT, tasks.get(1))));
+    }
+
+    @Test
+    void getTaskPageBefore() throws Exception {
+        String cursor = CursorCodec.encode(ID_SORT, tasks.get(2));
+        when(taskRepository.findPage(any(TaskFilter.class), eq(ID_SORT), eq(List.of("2")), eq(true), eq(3),
+                isNull()))
+                .thenReturn(List.of(tasks.get(1), tasks.get(0)));
+        mockMvc.perform(get("/tasks/page").param("before", cursor).param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("0"))
+                .andExpect(jsonPath("$.items[1].id").value("1"))
+                .andExpect(jsonPath("$.next").value(CursorCodec.encode(ID_SORT, tasks.get(1))))
+                .andExpect(jsonPath("$.prev").value(nullValue()));
+    }
+
+    @Test
+    void getTaskPageFiltered() throws Exception {
+        Sort sort = SortParser.parse("due,-status");
+        when(taskRepository.findPage(any(TaskFilter.class), eq(sort), isNull(), eq(false), eq(51), isNull()))
+                .thenReturn(tasks);
+        mockMvc.perform(get("/tasks/page")
+                        .param("status", "NEW", "IN_PROGRESS")
+                        .param("dueAfter", "2025-07-21T00:00:00")
+                        .param("dueBefore", "2025-07-28T00:00:00")
+                        .param("sort", "due,-status")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)));
+        verify(taskRepository).findPage(argThat(filter ->
+                        filter.getStatuses().equals(List.of(Status.NEW, Status.IN_PROGRESS))
+                                && filter.getDueAfter().equals(LocalDateTime.of(2025, 7, 21, 0, 0))
+                                && filter.getDueBefore().equals(LocalDateTime.of(2025, 7, 28, 0, 0))),
+                eq(sort), isNull(), eq(false), eq(51), isNull());
+    }
+
+    @Test
+    void getTaskPageProjected() throws Exception {
+        when(taskRepository.findPage(any(TaskFilter.class), eq(ID_SORT), isNull(), eq(false), eq(51),
+                any(TaskProjection.class))).thenReturn(tasks);
+        mockMvc.perform(get("/tasks/page")
+                        .param("fields", "title,status")
+                        .param("descriptionLength", "80")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)));
+        verify(taskRepository).findPage(any(TaskFilter.class), eq(ID_SORT), isNull(), eq(false), eq(51),
+                argThat(projection -> projection.getFields().equals(Set.of("title", "status"))
+                        && projection.getDescriptionLength() == 80));
+        mockMvc.perform(get("/tasks/page").param("fields", "title,owner").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/page").param("descriptionLength", "0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+        when(taskRepository.search(eq("budget review"), any(TaskFilter.class), eq(0), eq(3), isNull()))
+                .thenReturn(tasks);
+        mockMvc.perform(get("/tasks/search").param("q", "budget review").param("limit", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.next").value(CursorCodec.encodeOffset(2)))
+                .andExpect(jsonPath("$.prev").value(nullValue()));
+
+        when(taskRepository.search(eq("budget review"), any(TaskFilter.class), eq(2), eq(3), isNull()))
+                .thenReturn(tasks.subList(2, 3));
+        mockMvc.perform(get("/tasks/search").param("q", "budget review").param("limit", "2")
+                        .param("cursor", CursorCodec.encodeOffset(2))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.next").value(nullValue()))
+                .andExpect(jsonPath("$.prev").value(CursorCodec.encodeOffset(0)));
+    }
+
+    @Test
+    void searchTasksInvalidParameters() throws Exception {
+        mockMvc.perform(get("/tasks/search").param("q", " ").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/search").param("q", "budget").param("cursor", CursorCodec.encode(ID_SORT,
+                        tasks.get(0))).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/search").param("q", "budget")
+                        .param("cursor", CursorCodec.encodeOffset(TaskController.MAX_SEARCH_RESULTS))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTaskStats() throws Exception {
+        TaskStats stats = TaskStats.builder()
+                .date(LocalDate.of(2025, 7, 21))
+                .total(3)
+                .byStatus(Map.of(Status.NEW, 3L))
+                .dueByDay(List.of())
+                .computedAt(Instant.ofEpochMilli(1000))
+                .build();
+        when(statistics.get()).thenReturn(stats);
+        MvcResult result = mockMvc.perform(get("/tasks/stats").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byStatus.NEW").value(3))
+                .andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tasks/stats").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getTaskChanges() throws Exception {
+        when(sequence.committed()).thenReturn(40L);
+        when(taskRepository.findAll()).thenReturn(tasks);
+        mockMvc.perform(get("/tasks/changes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true))
+                .andExpect(jsonPath("$.seq").value(40))
+                .andExpect(jsonPath("$.tasks", hasSize(tasks.size())));
+        when(taskRepository.findBySeqGreaterThanOrderBySeq(30L)).thenReturn(List.of(tasks.get(1)));
+        when(tombstoneRepository.findBySeqGreaterThanOrderBySeq(30L))
+                .thenReturn(List.of(new TaskTombstone("2", 35L, Instant.now())));
+        mockMvc.perform(get("/tasks/changes?since=30").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.seq").value(40))
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.deleted[0].seq").value(35));
+        // deletes up to the horizon were pruned, or the number comes from another database
+        when(sequence.getHorizon()).thenReturn(31L);
+        mockMvc.perform(get("/tasks/changes?since=30").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/tasks/changes?since=41").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void getTaskPageInvalidParameters() throws Exception {
+        mockMvc.perform(get("/tasks/page?limit=0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/page?after=a&before=b").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks/page?sort=title").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        String cursor = CursorCodec.encode(ID_SORT, tasks.get(0));
+        mockMvc.perform(get("/tasks/page").param("after", cursor).param("sort", "due")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    void getTaskPageTamperedDueCursor() throws Exception {
+        Sort sort = SortParser.parse("due");
+        String raw = SortParser.format(sort) + "|2024-13-45T99:00|" + tasks.get(0).getId();
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/tasks/page").param("after", cursor).param("sort", "due")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+        mockMvc.perform(get("/tasks/page").param("after", "not base64!").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    @Test
+    void exportTasks() throws Exception {
+        when(taskRepository.streamAllBy()).thenReturn(tasks.stream());
+        MvcResult result = mockMvc.perform(get("/tasks/export").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Title1", mapper.readValue(lines[1], Task.class).getTitle());
+    }
+
     @Test
     void getTask() throws Exception {
         Task task = tasks.get(2);
@@ -69,6 +324,48 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.title").value("Title2"));
     }
 
+    @Test
+    void getTaskNotModified() throws Exception {
+        Task task = tasks.get(2);
+        task.setVersion(4L);
+        when(taskRepository.findById("2")).thenReturn(Optional.of(task));
+        mockMvc.perform(get("/tasks/2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-4\""));
+        mockMvc.perform(get("/tasks/2").header("If-None-Match", "\"2-4\"").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllTasksNotModified() throws Exception {
+        when(taskRepository.findAll()).thenReturn(tasks);
+        String etag = mockMvc.perform(get("/tasks").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        verify(taskRepository, times(1)).findAll();
+
+        doNothing().when(taskRepository).delete(any(Task.class));
+        when(taskRepository.findById("2")).thenReturn(Optional.of(tasks.get(2)));
+        mockMvc.perform(delete("/tasks/2")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateTaskConflict() throws Exception {
+        Task task = tasks.get(1);
+        task.setVersion(1L);
+        when(taskRepository.save(any(Task.class))).thenThrow(new OptimisticLockingFailureException("stale"));
+        mockMvc.perform(put("/tasks")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(task)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getTaskNotFound() throws Exception {
         Task task = tasks.get(2);
@@ -109,6 +406,119 @@ public class TaskControllerTest {
                 )
                 .andExpect(content().json(taskJson))
                 .andExpect(status().isOk());
+        // one write for the create, one for the update
+        verify(taskRepository, times(2)).save(any(Task.class));
+    }
+
+    @Test
+    void createTaskIgnoresVersion() throws Exception {
+        Task task = Task.builder().id("1").title("Title1").status(Status.NEW).version(3L).build();
+        // without a version the save is an insert, which collides with the existing id
+        when(taskRepository.save(argThat(saved -> saved.getVersion() == null)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+        mockMvc.perform(post("/tasks")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(task)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Task already exists"));
+    }
+
+    @Test
+    void patchTask() throws Exception {
+        Task patched = tasks.get(1);
+        patched.setStatus(Status.CLOSED);
+        patched.setVersion(4L);
+        when(taskRepository.patch(eq(patched.getId()), argThat(patch -> patch.getStatus() == Status.CLOSED
+                && patch.getTitle() == null), anyLong())).thenReturn(new TaskChange(tasks.get(0), patched));
+        mockMvc.perform(patch("/tasks/" + patched.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", TaskChangeTracker.taskTag(patched.getId(), 4L)))
+                .andExpect(jsonPath("$.status").value("CLOSED"));
+        verify(statistics).record(tasks.get(0), patched);
+        verify(eventBus).publish(argThat(event -> event.getType() == TaskEvent.Type.UPDATED
+                && event.getTask() == patched));
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void patchTaskRejected() throws Exception {
+        mockMvc.perform(patch("/tasks/1").contentType(MediaType.APPLICATION_JSON).content("{\"version\":1}"))
+                .andExpect(status().isBadRequest());
+        when(taskRepository.patch(eq("1"), any(TaskPatch.class), anyLong())).thenReturn(null);
+        when(taskRepository.existsById("1")).thenReturn(true);
+        mockMvc.perform(patch("/tasks/1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\",\"version\":1}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/tasks/1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CLOSED\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void batch() throws Exception {
+        List<BatchOperation> operations = List.of(
+                BatchOperation.builder().type(BatchOperation.Type.CREATE).task(tasks.get(0)).build(),
+                BatchOperation.builder().type(BatchOperation.Type.DELETE).id("1").build());
+        BatchResult result = BatchResult.builder()
+                .items(List.of(
+                        BatchItemResult.builder().index(0).type(BatchOperation.Type.CREATE).id("0").status(201).build(),
+                        BatchItemResult.builder().index(1).type(BatchOperation.Type.DELETE).id("1").status(204).build()))
+                .inserted(1)
+                .deleted(1)
+                .build();
+        when(sequence.begin()).thenReturn(12L);
+        when(taskRepository.bulkWrite(anyList(), eq(12L))).thenReturn(result);
+        mockMvc.perform(post("/tasks:batch")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(operations)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].status").value(201))
+                .andExpect(jsonPath("$.deleted").value(1));
+        verify(taskRepository).bulkWrite(argThat(list -> list.size() == 2), eq(12L));
+        verify(tombstoneRepository).saveAll(argThat((List<TaskTombstone> tombstones) -> tombstones.size() == 1
+                && tombstones.get(0).getId().equals("1") && tombstones.get(0).getSeq() == 12L));
+        verify(sequence).end(12L);
+    }
+
+    @Test
+    void batchEmpty() throws Exception {
+        mockMvc.perform(post("/tasks:batch")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateByQuery() throws Exception {
+        when(taskRepository.updateByQuery(argThat(filter -> filter.getStatuses().equals(List.of(Status.IN_PROGRESS))),
+                argThat(set -> set.getStatus() == Status.CLOSED), eq(true), anyLong()))
+                .thenReturn(UpdateByQueryResult.builder().matched(42).dryRun(true).build());
+        mockMvc.perform(post("/tasks:update")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"statuses\":[\"IN_PROGRESS\"]},\"set\":{\"status\":\"CLOSED\"},"
+                                + "\"dryRun\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(42))
+                .andExpect(jsonPath("$.dryRun").value(true));
+    }
+
+    @Test
+    void updateByQueryRejected() throws Exception {
+        mockMvc.perform(post("/tasks:update").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{},\"set\":{\"status\":\"CLOSED\"}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/tasks:update").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"ids\":[\"1\"]},\"set\":{}}"))
+                .andExpect(status().isBadRequest());
+        verify(taskRepository, never()).updateByQuery(any(), any(), anyBoolean(), anyLong());
     }
 
     @Test
@@ -118,6 +528,8 @@ public class TaskControllerTest {
         doNothing().when(taskRepository).delete(any(Task.class));
         mockMvc.perform(delete("/tasks/2").contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
+        verify(eventBus).publish(argThat(event -> event.getType() == TaskEvent.Type.DELETED
+                && event.getId().equals("2") && event.getTask() == null));
     }
 
     @Test
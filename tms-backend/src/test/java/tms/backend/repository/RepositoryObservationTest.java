@@ -0,0 +1,74 @@
+package tms.backend.repository;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RepositoryObservationTest {
+
+    private final List<Observation.Context> stopped = new ArrayList<>();
+
+    private final RepositoryObservation observation = new RepositoryObservation(registry(), TaskRepository.class);
+
+    @Test
+    void observesRepositoryCall() throws Throwable {
+        MethodInvocation invocation = invocation();
+        when(invocation.proceed()).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), observation.invoke(invocation));
+
+        assertEquals(1, stopped.size());
+        Observation.Context context = stopped.get(0);
+        assertEquals(RepositoryObservation.NAME, context.getName());
+        assertEquals("TaskRepository.findById", context.getContextualName());
+        assertEquals("TaskRepository", context.getLowCardinalityKeyValue("repository").getValue());
+        assertEquals("findById", context.getLowCardinalityKeyValue("method").getValue());
+        assertNull(context.getError());
+    }
+
+    @Test
+    void recordsFailureAndRethrows() throws Throwable {
+        MethodInvocation invocation = invocation();
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("Mongo down");
+        when(invocation.proceed()).thenThrow(failure);
+
+        assertSame(failure, assertThrows(DataAccessResourceFailureException.class,
+                () -> observation.invoke(invocation)));
+
+        assertEquals(1, stopped.size());
+        assertSame(failure, stopped.get(0).getError());
+    }
+
+    private static MethodInvocation invocation() throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(TaskRepository.class.getMethod("findById", Object.class));
+        return invocation;
+    }
+
+    private ObservationRegistry registry() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+        });
+        return registry;
+    }
+}
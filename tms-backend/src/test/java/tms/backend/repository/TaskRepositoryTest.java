@@ -1,18 +1,36 @@
 package tms.backend.repository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import tms.backend.ApplicationProperties;
+import tms.backend.model.BatchOperation;
+import tms.backend.model.BatchResult;
 import tms.backend.model.Status;
 import tms.backend.model.Task;
+import tms.backend.model.TaskChange;
+import tms.backend.model.TaskFilter;
+import tms.backend.model.TaskPatch;
+import tms.backend.model.TaskProjection;
+import tms.backend.model.TaskStats;
+import tms.backend.model.UpdateByQueryResult;
+import tms.backend.service.TaskStatistics;
+import tms.backend.utils.CursorCodec;
 import tms.backend.utils.DataGenerator;
+import tms.backend.utils.SortParser;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,18 +38,132 @@ import static org.junit.jupiter.api.Assertions.*;
 @Slf4j
 @DataMongoTest(properties = {"de.flapdoodle.mongodb.embedded.version=6.0.15",
         "spring.data.mongodb.port=28018"})
-@Import({ApplicationProperties.class, DataGenerator.class})
+@Import({ApplicationProperties.class, DataGenerator.class, TaskStatistics.class})
 public class TaskRepositoryTest {
 
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskStatistics statistics;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Test
     void getAllTasks() {
         List<Task> all = taskRepository.findAll();
         assertEquals(7, all.size());
     }
 
+    @Test
+    void getTaskPages() {
+        Sort sort = SortParser.parse(null);
+        int total = taskRepository.findAll().size();
+        List<Task> first = taskRepository.findPage(null, sort, null, false, 4);
+        assertEquals(4, first.size());
+        List<Object> last = CursorCodec.decode(CursorCodec.encode(sort, first.get(3)), sort);
+        List<Task> second = taskRepository.findPage(null, sort, last, false, 4);
+        assertEquals(Math.min(4, total - 4), second.size());
+        List<Object> firstOfSecond = CursorCodec.decode(CursorCodec.encode(sort, second.get(0)), sort);
+        List<Task> back = taskRepository.findPage(null, sort, firstOfSecond, true, 4);
+        assertEquals(first.get(3).getId(), back.get(0).getId());
+    }
+
+    @Test
+    void getTaskPagesFilteredAndSorted() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(taskRepository.save(Task.builder()
+                    .title("Sorted" + i)
+                    .status(i == 1 ? Status.CLOSED : Status.IN_PROGRESS)
+                    .due(now.plusYears(10).plusDays(i))
+                    .build()));
+        }
+        Sort sort = SortParser.parse("-due");
+        TaskFilter filter = TaskFilter.builder()
+                .statuses(List.of(Status.IN_PROGRESS))
+                .dueAfter(now.plusYears(9))
+                .build();
+        List<Task> first = taskRepository.findPage(filter, sort, null, false, 1);
+        assertEquals("Sorted2", first.get(0).getTitle());
+        List<Object> position = CursorCodec.decode(CursorCodec.encode(sort, first.get(0)), sort);
+        List<Task> second = taskRepository.findPage(filter, sort, position, false, 5);
+        assertEquals(1, second.size());
+        assertEquals("Sorted0", second.get(0).getTitle());
+        taskRepository.deleteAll(saved);
+    }
+
+    @Test
+    void getTaskPageProjected() {
+        Task saved = taskRepository.save(Task.builder()
+                .title("Projected")
+                .description("A description longer than ten characters")
+                .status(Status.NEW)
+                .due(LocalDateTime.now().plusYears(20))
+                .build());
+        Sort sort = SortParser.parse("-due");
+        TaskProjection projection = TaskProjection.builder()
+                .fields(Set.of("title", "description"))
+                .descriptionLength(10)
+                .build();
+        Task first = taskRepository.findPage(null, sort, null, false, 1, projection).get(0);
+        assertEquals(saved.getId(), first.getId());
+        assertEquals("Projected", first.getTitle());
+        assertEquals("A descript\u2026", first.getDescription());
+        assertNotNull(first.getDue());
+        assertNull(first.getStatus());
+        assertNull(first.getVersion());
+        taskRepository.delete(saved);
+    }
+
+    @Test
+    void searchTasks() {
+        List<Task> saved = taskRepository.saveAll(List.of(
+                Task.builder().title("Notes").description("Budget figures attached").status(Status.NEW).build(),
+                Task.builder().title("Budget review").description("Quarterly").status(Status.NEW).build(),
+                Task.builder().title("Budget archive").status(Status.CLOSED).build()));
+        TaskFilter filter = TaskFilter.builder().statuses(List.of(Status.NEW)).build();
+        List<Task> found = taskRepository.search("budget", filter, 0, 10, null);
+        assertEquals(2, found.size());
+        // title matches weigh more than description matches
+        assertEquals("Budget review", found.get(0).getTitle());
+        assertTrue(found.get(0).getScore() > found.get(1).getScore());
+        List<Task> second = taskRepository.search("budget", filter, 1, 10, null);
+        assertEquals(List.of("Notes"), second.stream().map(Task::getTitle).toList());
+        taskRepository.deleteAll(saved);
+    }
+
+    @Test
+    void statisticsFollowWrites() {
+        LocalDate today = LocalDate.now();
+        TaskStats initial = statistics.get();
+        Task task = taskRepository.save(Task.builder().title("Counted").status(Status.NEW)
+                .due(today.plusDays(2).atTime(12, 0)).build());
+        statistics.record(null, task);
+        TaskChange change = taskRepository.patch(task.getId(),
+                TaskPatch.builder().due(today.minusDays(1).atTime(12, 0)).build(), 1L);
+        statistics.record(change.getBefore(), change.getAfter());
+
+        TaskStats incremental = statistics.get();
+        assertEquals(initial.getTotal() + 1, incremental.getTotal());
+        assertEquals(initial.getByStatus().get(Status.NEW) + 1, incremental.getByStatus().get(Status.NEW));
+        assertEquals(initial.getOverdue() + 1, incremental.getOverdue());
+        assertEquals(initial.getDueByDay().get(2).getCount(), incremental.getDueByDay().get(2).getCount());
+        // the aggregation must agree with the counts maintained by the writes
+        statistics.invalidate();
+        TaskStats computed = statistics.get();
+        assertEquals(incremental.getTotal(), computed.getTotal());
+        assertEquals(incremental.getByStatus(), computed.getByStatus());
+        assertEquals(incremental.getOverdue(), computed.getOverdue());
+        assertEquals(30, computed.getDueByDay().size());
+
+        taskRepository.delete(change.getAfter());
+        statistics.record(change.getAfter(), null);
+        assertEquals(initial.getTotal(), statistics.get().getTotal());
+    }
+
     @Test
     void getTask() {
         Optional<Task> task = taskRepository.findById(getTaskIdFromTitle("Title1"));
@@ -81,6 +213,130 @@ public class TaskRepositoryTest {
         assertFalse(task.isPresent());
     }
 
+    @Test
+    void bulkWrite() {
+        Task existing = taskRepository.save(Task.builder().title("Bulk existing").status(Status.NEW).build());
+        Task doomed = taskRepository.save(Task.builder().title("Bulk doomed").status(Status.NEW).build());
+        existing.setStatus(Status.CLOSED);
+        List<BatchOperation> operations = List.of(
+                BatchOperation.builder().type(BatchOperation.Type.CREATE)
+                        .task(Task.builder().title("Bulk new").status(Status.NEW).build()).build(),
+                BatchOperation.builder().type(BatchOperation.Type.UPDATE).task(existing).build(),
+                BatchOperation.builder().type(BatchOperation.Type.DELETE).id(doomed.getId()).build(),
+                BatchOperation.builder().type(BatchOperation.Type.CREATE)
+                        .task(Task.builder().id(existing.getId()).title("Bulk duplicate").build()).build(),
+                BatchOperation.builder().type(BatchOperation.Type.DELETE).build(),
+                BatchOperation.builder().type(BatchOperation.Type.UPDATE)
+                        .task(Task.builder().id(existing.getId()).title("Bulk stale").version(42L).build()).build(),
+                BatchOperation.builder().type(BatchOperation.Type.DELETE).id("000000000000000000000000").build());
+
+        BatchResult result = taskRepository.bulkWrite(operations, 1L);
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getModified());
+        assertEquals(1, result.getDeleted());
+        assertEquals(4, result.getFailed());
+        assertEquals(204, result.getItems().get(2).getStatus());
+        assertEquals(409, result.getItems().get(3).getStatus());
+        assertEquals(400, result.getItems().get(4).getStatus());
+        assertEquals(409, result.getItems().get(5).getStatus());
+        assertEquals(404, result.getItems().get(6).getStatus());
+        assertEquals(1L, result.getItems().get(1).getVersion());
+        String createdId = result.getItems().get(0).getId();
+        assertTrue(taskRepository.findById(createdId).isPresent());
+        Task updated = taskRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(Status.CLOSED, updated.getStatus());
+        assertEquals(1L, updated.getVersion());
+        assertFalse(taskRepository.findById(doomed.getId()).isPresent());
+        taskRepository.deleteAllById(List.of(createdId, existing.getId()));
+    }
+
+    @Test
+    void updateTaskStoredWithoutVersion() {
+        Document legacy = new Document("title", "Legacy").append("status", Status.NEW.name());
+        mongoTemplate.insert(legacy, "task");
+        String id = legacy.getObjectId("_id").toHexString();
+        assertNull(taskRepository.findById(id).orElseThrow().getVersion());
+
+        assertTrue(taskRepository.initMissingVersions() >= 1);
+        // the edit form sends back what it read
+        Task edited = taskRepository.findById(id).orElseThrow();
+        assertEquals(0L, edited.getVersion());
+        edited.setTitle("Legacy edited");
+        Task saved = taskRepository.save(edited);
+        assertEquals(1L, saved.getVersion());
+        assertEquals("Legacy edited", taskRepository.findById(id).orElseThrow().getTitle());
+        taskRepository.deleteById(id);
+    }
+
+    @Test
+    void updateTaskStaleVersion() {
+        Task task = taskRepository.findById(getTaskIdFromTitle("Title3")).orElseThrow();
+        Task stale = Task.builder().id(task.getId()).title(task.getTitle()).version(task.getVersion()).build();
+        task.setDescription("Fresh");
+        taskRepository.save(task);
+        assertThrows(OptimisticLockingFailureException.class, () -> taskRepository.save(stale));
+    }
+
+    @Test
+    void patchTask() {
+        Task task = taskRepository.save(Task.builder().title("Patch me").description("Kept").status(Status.NEW).build());
+
+        TaskChange change = taskRepository.patch(task.getId(),
+                TaskPatch.builder().status(Status.CLOSED).version(task.getVersion()).build(), 1L);
+        Task patched = change.getAfter();
+
+        assertEquals(Status.NEW, change.getBefore().getStatus());
+        assertEquals(patched.getVersion(), taskRepository.findById(task.getId()).orElseThrow().getVersion());
+
+        assertEquals(Status.CLOSED, patched.getStatus());
+        assertEquals("Kept", patched.getDescription());
+        assertEquals(task.getVersion() + 1, patched.getVersion());
+        assertNull(taskRepository.patch(task.getId(),
+                TaskPatch.builder().title("Stale").version(task.getVersion()).build(), 1L));
+        assertNull(taskRepository.patch("missing", TaskPatch.builder().title("Missing").build(), 1L));
+        taskRepository.deleteById(task.getId());
+    }
+
+    @Test
+    void updateByQuery() {
+        Task open = taskRepository.save(Task.builder().title("Sprint open").status(Status.IN_PROGRESS).build());
+        Task closed = taskRepository.save(Task.builder().title("Sprint closed").status(Status.CLOSED).build());
+        TaskFilter filter = TaskFilter.builder().ids(List.of(open.getId(), closed.getId())).build();
+        TaskPatch set = TaskPatch.builder().status(Status.CLOSED).build();
+
+        assertEquals(1, taskRepository.updateByQuery(filter, set, true, 1L).getMatched());
+        assertEquals(Status.IN_PROGRESS, taskRepository.findById(open.getId()).orElseThrow().getStatus());
+        UpdateByQueryResult result = taskRepository.updateByQuery(filter, set, false, 1L);
+        assertEquals(1, result.getMatched());
+        assertEquals(1, result.getModified());
+        Task updated = taskRepository.findById(open.getId()).orElseThrow();
+        assertEquals(Status.CLOSED, updated.getStatus());
+        assertEquals(open.getVersion() + 1, updated.getVersion());
+        assertEquals(1L, updated.getSeq());
+        assertEquals(closed.getVersion(), taskRepository.findById(closed.getId()).orElseThrow().getVersion());
+        assertEquals(0, taskRepository.updateByQuery(filter, set, false, 1L).getModified());
+        taskRepository.deleteAllById(List.of(open.getId(), closed.getId()));
+    }
+
+    @Test
+    void changesSince() {
+        long first = taskRepository.reserveSequence(10);
+        assertEquals(first + 10, taskRepository.reserveSequence(10));
+        Task task = taskRepository.save(Task.builder().title("Sequenced").status(Status.NEW).seq(first).build());
+        TaskChange change = taskRepository.patch(task.getId(), TaskPatch.builder().status(Status.CLOSED).build(),
+                first + 1);
+        assertEquals(first + 1, change.getAfter().getSeq());
+        assertEquals(List.of(task.getId()),
+                taskRepository.findBySeqGreaterThanOrderBySeq(first).stream().map(Task::getId).toList());
+        assertTrue(taskRepository.findBySeqGreaterThanOrderBySeq(first + 1).isEmpty());
+        // the horizon never moves back
+        taskRepository.raiseSequenceHorizon(first);
+        taskRepository.raiseSequenceHorizon(first - 1);
+        assertEquals(first, taskRepository.getSequenceHorizon());
+        taskRepository.deleteById(task.getId());
+    }
+
     private String getTaskIdFromTitle(String title) {
         return taskRepository.findAll()
                 .stream()
@@ -0,0 +1,131 @@
+package tms.backend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import tms.backend.ApplicationProperties;
+import tms.backend.model.SlowQuery;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SlowQueryLogTest {
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final BsonDocument EXPLAIN_RESULT = BsonDocument.parse("{queryPlanner: {winningPlan: {"
+            + "stage: 'FETCH', filter: {title: {$eq: 'Secret title'}}, inputStage: {stage: 'IXSCAN',"
+            + " indexName: 'status_due_id', keyPattern: {status: 1, due: 1, _id: 1},"
+            + " indexBounds: {status: ['[\"NEW\", \"NEW\"]'], due: ['[MinKey, MaxKey]'],"
+            + " _id: ['[MinKey, MaxKey]']}}}}}");
+
+    private final MongoDatabase database = mock(MongoDatabase.class);
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog();
+
+    private int requestId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ApplicationProperties.SlowQueries properties = new ApplicationProperties.SlowQueries();
+        properties.setThreshold(Duration.ofMillis(100));
+        properties.setExplainInterval(Duration.ZERO);
+        properties.setMaxShapes(10);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setSlowQueries(properties);
+        MongoClient client = mock(MongoClient.class);
+        when(client.getDatabase("dev")).thenReturn(database);
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenReturn(EXPLAIN_RESULT);
+        ObjectProvider<MongoClient> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(client);
+        ReflectionTestUtils.setField(slowQueryLog, "applicationProperties", applicationProperties);
+        ReflectionTestUtils.setField(slowQueryLog, "mongoClient", provider);
+    }
+
+    @Test
+    void fastShapesAreNeverExplained() {
+        for (int i = 0; i < 5; i++) {
+            run("{find: 'task', filter: {status: 'NEW'}, $db: 'dev'}", FAST);
+        }
+
+        SlowQuery shape = slowQueryLog.slowest(10).get(0);
+        assertEquals(5, shape.getCount());
+        assertEquals(0, shape.getSlowCount());
+        verifyNoInteractions(database);
+    }
+
+    @Test
+    void explainsOnSecondSlowExecutionWithRedactedPlan() {
+        // the first slow execution only marks the shape, its command was not copied
+        run("{find: 'task', filter: {title: 'Secret title', status: 'NEW'}, $db: 'dev'}", SLOW);
+        verifyNoInteractions(database);
+
+        run("{find: 'task', filter: {title: 'Secret title', status: 'NEW'}, $db: 'dev'}", SLOW);
+        verify(database, timeout(5000)).runCommand(any(Bson.class), eq(BsonDocument.class));
+        SlowQuery shape = awaitPlan();
+
+        assertEquals(2, shape.getSlowCount());
+        assertEquals("FETCH <- IXSCAN status_due_id", shape.getPlanSummary());
+        String plan = shape.getPlan().toJson();
+        assertFalse(plan.contains("Secret title"));
+        assertFalse(plan.contains("NEW"));
+        assertTrue(plan.contains("status_due_id"));
+        assertFalse(shape.getShape().contains("Secret title"));
+
+        // captured once per shape
+        run("{find: 'task', filter: {title: 'Other title', status: 'NEW'}, $db: 'dev'}", SLOW);
+        verify(database, times(1)).runCommand(any(Bson.class), eq(BsonDocument.class));
+    }
+
+    @Test
+    void slowestFirstAndLimited() {
+        run("{find: 'task', filter: {status: 'NEW'}, $db: 'dev'}", FAST);
+        run("{count: 'task', query: {status: 'NEW'}, $db: 'dev'}", SLOW);
+
+        assertEquals(1, slowQueryLog.slowest(1).size());
+        assertEquals("count", slowQueryLog.slowest(1).get(0).getCommand());
+    }
+
+    private void run(String json, long nanos) {
+        BsonDocument command = BsonDocument.parse(json);
+        String name = command.getFirstKey();
+        int id = ++requestId;
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        when(started.getRequestId()).thenReturn(id);
+        when(started.getCommandName()).thenReturn(name);
+        when(started.getDatabaseName()).thenReturn("dev");
+        when(started.getCommand()).thenReturn(command);
+        slowQueryLog.commandStarted(started);
+        CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+        when(succeeded.getRequestId()).thenReturn(id);
+        when(succeeded.getElapsedTime(TimeUnit.NANOSECONDS)).thenReturn(nanos);
+        slowQueryLog.commandSucceeded(succeeded);
+    }
+
+    private SlowQuery awaitPlan() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            SlowQuery shape = slowQueryLog.slowest(1).get(0);
+            if (shape.getPlan() != null) {
+                return shape;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("No plan captured");
+    }
+}
@@ -0,0 +1,59 @@
+package tms.backend.utils;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryShapeTest {
+
+    @Test
+    void redactsLiterals() {
+        BsonDocument find = BsonDocument.parse("{find: 'task', filter: {status: {$in: ['OPEN', 'DONE', 'BLOCKED']},"
+                + " due: {$gte: {$date: '2024-01-01T00:00:00Z'}}}, sort: {due: 1, _id: 1}, limit: 51,"
+                + " $db: 'dev', lsid: {id: 1}}");
+
+        BsonDocument shape = QueryShape.of("find", find);
+
+        assertEquals(BsonDocument.parse("{find: 'task', filter: {status: {$in: ['?']}, due: {$gte: '?'}},"
+                + " sort: {due: 1, _id: 1}, limit: '?'}"), shape);
+        assertFalse(shape.toJson().contains("OPEN"));
+    }
+
+    @Test
+    void sameShapeForDifferentValues() {
+        BsonDocument first = BsonDocument.parse("{update: 'task', updates: [{q: {_id: 'a', version: 1},"
+                + " u: {$set: {title: 'x'}}}], $db: 'dev'}");
+        BsonDocument second = BsonDocument.parse("{update: 'task', updates: [{q: {_id: 'b', version: 7},"
+                + " u: {$set: {title: 'y'}}}, {q: {_id: 'c', version: 2}, u: {$set: {title: 'z'}}}], $db: 'dev'}");
+
+        assertEquals(QueryShape.of("update", first), QueryShape.of("update", second));
+    }
+
+    @Test
+    void redactsPlanLiterals() {
+        BsonDocument plan = BsonDocument.parse("{stage: 'FETCH', filter: {$and: [{title: {$eq: 'Plans'}},"
+                + " {due: {$lt: {$date: '2024-01-01T00:00:00Z'}}}]}, inputStage: {stage: 'IXSCAN',"
+                + " indexName: 'status_due_id', keyPattern: {status: 1},"
+                + " indexBounds: {status: ['[\"NEW\", \"NEW\"]']}}}");
+
+        assertEquals(BsonDocument.parse("{stage: 'FETCH', filter: {$and: [{title: {$eq: '?'}}, {due: {$lt: '?'}}]},"
+                + " inputStage: {stage: 'IXSCAN', indexName: 'status_due_id', keyPattern: {status: 1},"
+                + " indexBounds: {status: ['?']}}}"), QueryShape.redactPlan(plan));
+    }
+
+    @Test
+    void ignoresHousekeepingCommands() {
+        assertNull(QueryShape.of("hello", BsonDocument.parse("{hello: 1}")));
+        assertNull(QueryShape.of("explain", BsonDocument.parse("{explain: {find: 'task'}}")));
+    }
+
+    @Test
+    void explainCommandDropsDriverFields() {
+        BsonDocument delete = BsonDocument.parse("{delete: 'task', deletes: [{q: {_id: 'a'}, limit: 1},"
+                + " {q: {_id: 'b'}, limit: 1}], $db: 'dev', lsid: {id: 1}, txnNumber: 3}");
+
+        assertEquals(BsonDocument.parse("{delete: 'task', deletes: [{q: {_id: 'a'}, limit: 1}]}"),
+                QueryShape.explainCommand("delete", delete));
+    }
+}
@@ -0,0 +1,100 @@
+package tms.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.AsyncFeign;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import tms.frontend.ApplicationProperties;
+import tms.frontend.model.TaskPage;
+import tms.frontend.service.AsyncTmBackend;
+import tms.frontend.service.BackendTransport;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend transports calling a local stub serving a task page, from several threads at once.
+ * The stub speaks HTTP/1.1 only, so this measures connection reuse rather than HTTP/2 multiplexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+public class BackendClientBenchmark {
+
+    private static final Map<String, Object> QUERY = Map.of("limit", 25);
+
+    @Param({"URL_CONNECTION", "JDK_HTTP_CLIENT"})
+    private ApplicationProperties.Transport transport;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private ExecutorService backendExecutor;
+
+    private AsyncTmBackend backend;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ObjectMapper mapper = Fixtures.mapper();
+        byte[] page = mapper.writeValueAsBytes(new tms.backend.model.TaskPage(Fixtures.backendTasks(25), "next", null));
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/tasks/page", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, page.length);
+            exchange.getResponseBody().write(page);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        ApplicationProperties.BackendClient properties = new ApplicationProperties.BackendClient();
+        properties.setTransport(transport);
+        properties.setHttpVersion(HttpClient.Version.HTTP_1_1);
+        properties.setMaxConnections(16);
+        properties.setMaxQueued(1000);
+        properties.setQueueTimeout(Duration.ofSeconds(2));
+        properties.setConnectTimeout(Duration.ofSeconds(2));
+        properties.setReadTimeout(Duration.ofSeconds(10));
+        properties.setKeepAlive(Duration.ofMinutes(5));
+        backendExecutor = Executors.newCachedThreadPool();
+        backend = AsyncFeign.builder()
+                .client(BackendTransport.create(properties, backendExecutor, new SimpleMeterRegistry()))
+                .options(BackendTransport.options(properties))
+                .decoder(new JacksonDecoder(mapper))
+                .encoder(new JacksonEncoder(mapper))
+                .target(AsyncTmBackend.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backendExecutor.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public TaskPage getTaskPage() {
+        return backend.getTaskPage(QUERY).join();
+    }
+}
@@ -0,0 +1,74 @@
+package tms.benchmarks;
+
+import feign.Request;
+import feign.Response;
+import feign.jackson.JacksonDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskPage;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign JacksonDecoder decoding the backend responses read by the frontend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeignDecoderBenchmark {
+
+    @Param({"25", "500"})
+    private int size;
+
+    private JacksonDecoder decoder;
+
+    private Request request;
+
+    private byte[] page;
+
+    private byte[] tasks;
+
+    private Type tasksType;
+
+    @Setup
+    public void setup() throws Exception {
+        decoder = new JacksonDecoder(Fixtures.mapper());
+        request = Request.create(Request.HttpMethod.GET, "http://tms-backend:9090/tasks/page", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        List<tms.backend.model.Task> backendTasks = Fixtures.backendTasks(size);
+        page = Fixtures.mapper().writeValueAsBytes(new tms.backend.model.TaskPage(backendTasks, "next", "prev"));
+        tasks = Fixtures.mapper().writeValueAsBytes(backendTasks);
+        tasksType = FeignDecoderBenchmark.class.getDeclaredMethod("decodeTasks").getGenericReturnType();
+    }
+
+    @Benchmark
+    public Object decodePage() throws Exception {
+        return decoder.decode(response(page), TaskPage.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Task> decodeTasks() throws Exception {
+        return (List<Task>) decoder.decode(response(tasks), tasksType);
+    }
+
+    private Response response(byte[] body) {
+        return Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of())
+                .body(body)
+                .build();
+    }
+}
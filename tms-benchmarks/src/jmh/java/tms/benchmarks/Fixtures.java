@@ -0,0 +1,66 @@
+package tms.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task data shared by the benchmarks, shaped like the generated test data.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2025, 7, 21, 12, 0);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Object mapper configured like the Spring Boot one used by both services
+     *
+     * @return ObjectMapper
+     */
+    static ObjectMapper mapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    static List<tms.backend.model.Task> backendTasks(int size) {
+        List<tms.backend.model.Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(tms.backend.model.Task.builder()
+                    .id(id(i))
+                    .title("Task " + i)
+                    .description(description(i))
+                    .status(tms.backend.model.Status.values()[i % tms.backend.model.Status.values().length])
+                    .due(DUE.plusHours(i))
+                    .version((long) i % 5)
+                    .build());
+        }
+        return tasks;
+    }
+
+    static List<tms.frontend.model.Task> frontendTasks(int size) {
+        List<tms.frontend.model.Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(tms.frontend.model.Task.builder()
+                    .id(id(i))
+                    .title("Task " + i)
+                    .description(description(i))
+                    .status(tms.frontend.model.Status.values()[i % tms.frontend.model.Status.values().length])
+                    .due(DUE.plusHours(i))
+                    .version((long) i % 5)
+                    .build());
+        }
+        return tasks;
+    }
+
+    private static String id(int i) {
+        return String.format("66b0f2a1c4e5d6%010x", i);
+    }
+
+    private static String description(int i) {
+        return "Description of task " + i + ", long enough to look like something a person would type in.";
+    }
+}
@@ -0,0 +1,69 @@
+package tms.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson round-trips of task lists as written by the backend and read by the frontend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    private static final TypeReference<List<tms.backend.model.Task>> BACKEND_TASKS = new TypeReference<>() {
+    };
+
+    private static final TypeReference<List<tms.frontend.model.Task>> FRONTEND_TASKS = new TypeReference<>() {
+    };
+
+    @Param({"1", "25", "500", "5000"})
+    private int size;
+
+    private ObjectMapper mapper;
+
+    private List<tms.backend.model.Task> backendTasks;
+
+    private List<tms.frontend.model.Task> frontendTasks;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = Fixtures.mapper();
+        backendTasks = Fixtures.backendTasks(size);
+        frontendTasks = Fixtures.frontendTasks(size);
+        json = mapper.writeValueAsBytes(backendTasks);
+    }
+
+    @Benchmark
+    public byte[] writeBackendTasks() throws Exception {
+        return mapper.writeValueAsBytes(backendTasks);
+    }
+
+    @Benchmark
+    public List<tms.backend.model.Task> readBackendTasks() throws Exception {
+        return mapper.readValue(json, BACKEND_TASKS);
+    }
+
+    @Benchmark
+    public byte[] writeFrontendTasks() throws Exception {
+        return mapper.writeValueAsBytes(frontendTasks);
+    }
+
+    @Benchmark
+    public List<tms.frontend.model.Task> readFrontendTasks() throws Exception {
+        return mapper.readValue(json, FRONTEND_TASKS);
+    }
+}
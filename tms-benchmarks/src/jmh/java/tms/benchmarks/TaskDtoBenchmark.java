@@ -0,0 +1,64 @@
+package tms.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskDTO;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions between the task entity and the form DTO done for every edit and details page.
+ * The formatter benchmarks isolate what DateTimeFormatter.ofPattern costs on each conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskDtoBenchmark {
+
+    private static final String PATTERN = "dd-MM-yyyy HH:mm";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private Task task;
+
+    private TaskDTO dto;
+
+    @Setup
+    public void setup() {
+        task = Fixtures.frontendTasks(1).get(0);
+        dto = TaskDTO.fromTask(task);
+    }
+
+    @Benchmark
+    public TaskDTO fromTask() {
+        return TaskDTO.fromTask(task);
+    }
+
+    @Benchmark
+    public Task toTask() {
+        return dto.toTask();
+    }
+
+    @Benchmark
+    public DateTimeFormatter ofPattern() {
+        return DateTimeFormatter.ofPattern(PATTERN);
+    }
+
+    @Benchmark
+    public LocalDateTime parseWithSharedFormatter() {
+        return LocalDateTime.parse(dto.getDue(), FORMATTER);
+    }
+
+    @Benchmark
+    public String formatWithSharedFormatter() {
+        return task.getDue().format(FORMATTER);
+    }
+}
@@ -0,0 +1,88 @@
+package tms.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+import tms.frontend.model.Status;
+import tms.frontend.model.TaskFilter;
+import tms.frontend.model.TaskPage;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the task list page through the same Thymeleaf view the frontend resolves,
+ * with the model the controller builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListRenderBenchmark {
+
+    @Param({"25", "100", "500"})
+    private int size;
+
+    private MockServletContext servletContext;
+
+    private View view;
+
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() throws Exception {
+        servletContext = new MockServletContext();
+        GenericWebApplicationContext context = new GenericWebApplicationContext(servletContext);
+        context.refresh();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+
+        SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
+        templateResolver.setApplicationContext(context);
+        templateResolver.setPrefix("classpath:/templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCacheable(true);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(templateResolver);
+        engine.setEnableSpringELCompiler(true);
+        ThymeleafViewResolver viewResolver = new ThymeleafViewResolver();
+        viewResolver.setApplicationContext(context);
+        viewResolver.setTemplateEngine(engine);
+        viewResolver.setCharacterEncoding("UTF-8");
+        view = viewResolver.resolveViewName("tasks", Locale.ENGLISH);
+
+        TaskFilter filter = new TaskFilter();
+        TaskPage page = new TaskPage(Fixtures.frontendTasks(size), "next", "prev");
+        model = new HashMap<>();
+        model.put("filter", filter);
+        model.put("statuses", Status.values());
+        model.put("openThisWeek", TaskFilter.openDueInWeekOf(LocalDate.of(2025, 7, 21)).toQuery());
+        model.put("tasks", page.getItems());
+        model.put("page", page);
+    }
+
+    @Benchmark
+    public String render() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/task-list");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(new HashMap<>(model), request, response);
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,108 @@
+package tms.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tms.backend.WireFormatConfiguration;
+import tms.frontend.ApplicationProperties.WireFormat;
+import tms.frontend.model.Task;
+import tms.frontend.service.BackendCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Task lists in each backend wire format, plain and gzipped: writing them with the backend converters
+ * and decoding them with the frontend codec. The payload size of every combination is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final Type FRONTEND_TASKS = new TypeReference<List<Task>>() {
+    }.getType();
+
+    @Param({"500", "5000"})
+    private int size;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private WireFormat format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper backendMapper;
+
+    private BackendCodec codec;
+
+    private Request request;
+
+    private List<tms.backend.model.Task> backendTasks;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper mapper = Fixtures.mapper();
+        WireFormatConfiguration configuration = new WireFormatConfiguration();
+        backendMapper = switch (format) {
+            case JSON -> mapper;
+            case SMILE -> configuration.smileHttpMessageConverter(mapper).getObjectMapper();
+            case CBOR -> configuration.cborHttpMessageConverter(mapper).getObjectMapper();
+        };
+        codec = new BackendCodec(mapper, format, gzip);
+        request = Request.create(Request.HttpMethod.GET, "http://tms-backend:9090/tasks", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        backendTasks = Fixtures.backendTasks(size);
+        body = encode();
+        System.out.printf("%n%d tasks as %s%s: %d bytes%n", size, format, gzip ? " gzip" : "", body.length);
+    }
+
+    /**
+     * Backend side, serializing and compressing a response
+     */
+    @Benchmark
+    public byte[] encode() throws IOException {
+        byte[] plain = backendMapper.writeValueAsBytes(backendTasks);
+        if (!gzip) {
+            return plain;
+        }
+        // the same default compression level Tomcat uses
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4);
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            compressed.write(plain);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Frontend side, decompressing and decoding a response
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Task> decode() throws IOException {
+        Response response = Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of())
+                .body(body)
+                .build();
+        return (List<Task>) codec.decode(response, FRONTEND_TASKS);
+    }
+}
@@ -0,0 +1,45 @@
+package tms.common;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import tms.common.controller.HotspotsEndpoint;
+import tms.common.controller.RecordingsEndpoint;
+import tms.common.service.Profiler;
+
+/**
+ * JDK Flight Recorder profiling, auto configured in both services.
+ * The endpoints are actuator endpoints, so they are only reachable where management.endpoints.web.exposure
+ * includes them, on the management port when one is set.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfiguration {
+
+    /**
+     * @param profiling profiling settings
+     * @return profiler
+     */
+    @Bean
+    public Profiler profiler(ProfilingProperties profiling) {
+        return new Profiler(profiling);
+    }
+
+    /**
+     * @param profiler profiler
+     * @return /actuator/recordings endpoint
+     */
+    @Bean
+    public RecordingsEndpoint recordingsEndpoint(Profiler profiler) {
+        return new RecordingsEndpoint(profiler);
+    }
+
+    /**
+     * @param profiler profiler
+     * @return /actuator/hotspots endpoint
+     */
+    @Bean
+    public HotspotsEndpoint hotspotsEndpoint(Profiler profiler) {
+        return new HotspotsEndpoint(profiler);
+    }
+}
@@ -0,0 +1,45 @@
+package tms.common;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * JDK Flight Recorder settings, the same for both services.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("profiling")
+@Validated
+public class ProfilingProperties {
+    /**
+     * Keep a rolling recording with the low overhead default settings
+     */
+    @NotNull
+    private Boolean continuous;
+    /**
+     * How far back the continuous recording reaches
+     */
+    @NotNull
+    private Duration maxAge;
+    /**
+     * Disk space used by the continuous recording
+     */
+    @NotNull
+    private DataSize maxSize;
+    /**
+     * Upper bound for the duration of on demand recordings
+     */
+    @NotNull
+    private Duration maxDuration;
+    /**
+     * How long a profile summary is reused for the same window before the recording is read again
+     */
+    @NotNull
+    private Duration summaryInterval;
+}
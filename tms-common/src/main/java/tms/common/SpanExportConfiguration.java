@@ -0,0 +1,48 @@
+package tms.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import tms.common.controller.TracesEndpoint;
+import tms.common.service.FileSpanExporter;
+import tms.common.service.RecentSpans;
+
+import java.nio.file.Path;
+
+/**
+ * Local span export, auto configured in both services.
+ * The recorded traces are listed by an actuator endpoint, so only where management.endpoints.web.exposure
+ * includes it, on the management port when one is set.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(TracingProperties.class)
+public class SpanExportConfiguration {
+
+    /**
+     * Local span exporter, picked up by the OpenTelemetry auto configuration together with any other exporter
+     *
+     * @param tracing span export settings
+     * @param mapper  object mapper
+     * @return span exporter
+     */
+    @Bean
+    public SpanExporter localSpanExporter(TracingProperties tracing, ObjectMapper mapper) {
+        return switch (tracing.getExporter()) {
+            case MEMORY -> new RecentSpans(tracing.getMemorySpans());
+            case FILE -> new FileSpanExporter(Path.of(tracing.getFile()), mapper.writer());
+            case NONE -> SpanExporter.composite();
+        };
+    }
+
+    /**
+     * @param spanExporters span exporters
+     * @return /actuator/traces endpoint
+     */
+    @Bean
+    public TracesEndpoint tracesEndpoint(ObjectProvider<SpanExporter> spanExporters) {
+        return new TracesEndpoint(spanExporters);
+    }
+}
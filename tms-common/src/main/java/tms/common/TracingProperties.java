@@ -0,0 +1,52 @@
+package tms.common;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Span export settings, the same for both services.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("tracing")
+@Validated
+public class TracingProperties {
+    /**
+     * Where finished spans go
+     */
+    @NotNull
+    private SpanExport exporter;
+    /**
+     * File receiving one JSON span per line, used by the FILE exporter
+     */
+    @NotNull
+    private String file;
+    /**
+     * Number of recent spans kept by the MEMORY exporter
+     */
+    @NotNull
+    @Min(1)
+    private Integer memorySpans;
+
+    /**
+     * Span exporters for local use, any other SpanExporter bean is used as well.
+     */
+    public enum SpanExport {
+        /**
+         * Spans are only used for log correlation and propagation
+         */
+        NONE,
+        /**
+         * Recent spans are kept in memory and listed at /actuator/traces/{traceId}
+         */
+        MEMORY,
+        /**
+         * Spans are appended to a JSON lines file
+         */
+        FILE
+    }
+}
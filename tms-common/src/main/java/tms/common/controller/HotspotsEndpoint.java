@@ -0,0 +1,58 @@
+package tms.common.controller;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.lang.Nullable;
+import tms.common.model.ProfileSummary;
+import tms.common.service.Profiler;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Profile summary at /actuator/hotspots, served by the management server and only when exposed.
+ */
+@WebEndpoint(id = "hotspots")
+public class HotspotsEndpoint {
+
+    /**
+     * Upper bound for the number of methods and allocation sites in a profile summary
+     */
+    static final int MAX_HOTSPOTS = 100;
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final Profiler profiler;
+
+    /**
+     * @param profiler profiler
+     */
+    public HotspotsEndpoint(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Hottest methods and top allocation sites of a recent window of the continuous recording
+     *
+     * @param window how far to look back, e.g. 5m (the default)
+     * @param top    number of entries per list, 20 by default
+     * @return summary, 409 when the continuous recording is disabled
+     */
+    @ReadOperation
+    public WebEndpointResponse<ProfileSummary> getProfileSummary(@Nullable Duration window, @Nullable Integer top)
+            throws IOException {
+        Duration summaryWindow = window == null ? Duration.ofMinutes(5) : window;
+        int summaryTop = top == null ? 20 : top;
+        if (summaryWindow.isNegative() || summaryWindow.isZero() || summaryTop < 1 || summaryTop > MAX_HOTSPOTS) {
+            String reason = "Window must be positive and top between 1 and " + MAX_HOTSPOTS;
+            throw new InvalidEndpointRequestException(reason, reason);
+        }
+        try {
+            return new WebEndpointResponse<>(profiler.summary(summaryWindow, summaryTop));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package tms.common.controller;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import tms.common.model.RecordingInfo;
+import tms.common.service.Profiler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Flight recordings at /actuator/recordings, served by the management server and only when exposed.
+ */
+@WebEndpoint(id = "recordings")
+public class RecordingsEndpoint {
+
+    /**
+     * Id of the continuous recording in download paths
+     */
+    static final String CONTINUOUS = "continuous";
+
+    private static final int STATUS_CREATED = 201;
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final Profiler profiler;
+
+    /**
+     * @param profiler profiler
+     */
+    public RecordingsEndpoint(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * List the on demand flight recordings
+     *
+     * @return recordings, oldest first
+     */
+    @ReadOperation
+    public List<RecordingInfo> getRecordings() {
+        return profiler.list();
+    }
+
+    /**
+     * Start a flight recording that stops by itself after the duration
+     *
+     * @param profile  JFR settings, default (low overhead) or profile (more detail, the default)
+     * @param duration recording duration, e.g. 60s (the default)
+     * @return recording, 409 when all recording slots are running
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingInfo> startRecording(@Nullable String profile, @Nullable Duration duration) {
+        try {
+            RecordingInfo recording = profiler.start(profile == null ? "profile" : profile,
+                    duration == null ? Duration.ofSeconds(60) : duration);
+            return new WebEndpointResponse<>(recording, STATUS_CREATED);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+    }
+
+    /**
+     * Stop a flight recording early
+     *
+     * @param id recording id
+     * @return recording, 404 for an unknown id
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingInfo> stopRecording(@Selector long id) {
+        try {
+            return new WebEndpointResponse<>(profiler.stop(id));
+        } catch (NoSuchElementException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Close a flight recording and delete its data
+     *
+     * @param id recording id
+     * @return 204, 404 for an unknown id
+     */
+    @DeleteOperation
+    public WebEndpointResponse<Void> deleteRecording(@Selector long id) {
+        try {
+            profiler.close(id);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+        } catch (NoSuchElementException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Download a flight recording, a running recording is returned up to now
+     *
+     * @param id recording id, or continuous for the rolling recording
+     * @return .jfr file, 404 for an unknown id, 409 when the continuous recording is disabled
+     */
+    @ReadOperation
+    public WebEndpointResponse<Resource> downloadRecording(@Selector String id) throws IOException {
+        if (CONTINUOUS.equals(id)) {
+            if (!profiler.isContinuous()) {
+                return new WebEndpointResponse<>(STATUS_CONFLICT);
+            }
+            return new WebEndpointResponse<>(new InputStreamResource(profiler.openContinuous()));
+        }
+        try {
+            return new WebEndpointResponse<>(new InputStreamResource(profiler.open(Long.parseLong(id))));
+        } catch (NumberFormatException | NoSuchElementException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+    }
+}
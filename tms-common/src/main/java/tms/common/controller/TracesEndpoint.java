@@ -0,0 +1,41 @@
+package tms.common.controller;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import tms.common.model.SpanRecord;
+import tms.common.service.RecentSpans;
+
+import java.util.List;
+
+/**
+ * Recorded traces at /actuator/traces, served by the management server and only when exposed.
+ */
+@WebEndpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final ObjectProvider<SpanExporter> spanExporters;
+
+    /**
+     * @param spanExporters span exporters, the in memory ones are searched
+     */
+    public TracesEndpoint(ObjectProvider<SpanExporter> spanExporters) {
+        this.spanExporters = spanExporters;
+    }
+
+    /**
+     * List the spans of a trace kept by the in memory exporter, empty unless tracing.exporter=memory
+     *
+     * @param traceId trace id, as logged or returned in the X-Trace-Id header
+     * @return spans ordered by start time
+     */
+    @ReadOperation
+    public List<SpanRecord> getTrace(@Selector String traceId) {
+        return spanExporters.stream()
+                .filter(RecentSpans.class::isInstance)
+                .flatMap(exporter -> ((RecentSpans) exporter).trace(traceId).stream())
+                .toList();
+    }
+}
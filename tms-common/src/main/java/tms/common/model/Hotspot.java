@@ -0,0 +1,22 @@
+package tms.common.model;
+
+import lombok.*;
+
+/**
+ * A method or allocation site and its share of the samples in a profile summary.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class Hotspot {
+    private String frame;
+    /**
+     * Execution samples for methods, sampled bytes for allocation sites
+     */
+    private long value;
+    private double percent;
+
+}
@@ -0,0 +1,35 @@
+package tms.common.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Hottest methods and top allocation sites of a recent window of the continuous recording.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ProfileSummary {
+    private Instant from;
+    private Instant to;
+    private long executionSamples;
+    /**
+     * Estimated bytes allocated, as weighted by the allocation samples
+     */
+    private long allocatedBytes;
+    /**
+     * Methods on top of the stack in execution samples
+     */
+    private List<Hotspot> hottestMethods;
+    /**
+     * First frame outside the JDK for each allocation sample, so allocations inside JDK collections
+     * and strings are charged to the application or library code asking for them
+     */
+    private List<Hotspot> allocationSites;
+
+}
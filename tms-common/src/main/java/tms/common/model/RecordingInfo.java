@@ -0,0 +1,30 @@
+package tms.common.model;
+
+import lombok.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of a flight recording.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class RecordingInfo {
+    private long id;
+    /**
+     * JFR settings used, default or profile
+     */
+    private String profile;
+    /**
+     * NEW, DELAYED, RUNNING, STOPPED or CLOSED
+     */
+    private String state;
+    private Instant start;
+    private Duration duration;
+
+}
@@ -0,0 +1,32 @@
+package tms.common.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A finished span as written by the local span exporters.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class SpanRecord {
+    private String service;
+    private String traceId;
+    private String spanId;
+    /**
+     * Null for the root span of a trace
+     */
+    private String parentSpanId;
+    private String name;
+    private String kind;
+    private Instant start;
+    private long durationMicros;
+    private String status;
+    private Map<String, String> attributes;
+
+}
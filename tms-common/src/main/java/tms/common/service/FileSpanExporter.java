@@ -0,0 +1,106 @@
+package tms.common.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import tms.common.model.SpanRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Span exporter appending one JSON span per line to a file, spans of both services can be merged by trace id.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final ObjectWriter writer;
+
+    private final BufferedWriter out;
+
+    /**
+     * @param file   file to append to
+     * @param writer writer for span records
+     */
+    public FileSpanExporter(Path file, ObjectWriter writer) {
+        this.writer = writer;
+        try {
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open span file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        try {
+            for (SpanData span : batch) {
+                out.write(writer.writeValueAsString(toRecord(span)));
+                out.newLine();
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans: {}", batch.size(), e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            out.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Convert a finished span
+     *
+     * @param span span data
+     * @return span record
+     */
+    static SpanRecord toRecord(SpanData span) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+        return SpanRecord.builder()
+                .service(span.getResource().getAttribute(SERVICE_NAME))
+                .traceId(span.getTraceId())
+                .spanId(span.getSpanId())
+                .parentSpanId(span.getParentSpanContext().isValid() ? span.getParentSpanId() : null)
+                .name(span.getName())
+                .kind(span.getKind().name())
+                .start(Instant.ofEpochSecond(0, span.getStartEpochNanos()))
+                .durationMicros((span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000)
+                .status(span.getStatus().getStatusCode().name())
+                .attributes(attributes)
+                .build();
+    }
+}
@@ -0,0 +1,370 @@
+package tms.common.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.EventStream;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import lombok.extern.slf4j.Slf4j;
+import tms.common.ProfilingProperties;
+import tms.common.model.Hotspot;
+import tms.common.model.ProfileSummary;
+import tms.common.model.RecordingInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * JDK Flight Recorder access for the profiling endpoints.
+ * A rolling recording with the default settings (about 1% overhead) runs all the time and backs
+ * the profile summary, on demand recordings can use the more detailed profile settings for a bounded time.
+ */
+@Slf4j
+public class Profiler {
+
+    /**
+     * Settings shipped with the JDK
+     */
+    public static final Set<String> PROFILES = Set.of("default", "profile");
+
+    /**
+     * Max number of on demand recordings kept, finished ones are closed first to make room
+     */
+    static final int MAX_RECORDINGS = 4;
+
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    private final ProfilingProperties properties;
+
+    private Recording continuous;
+
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+
+    /**
+     * Guards the summary, so concurrent requests read the recording once
+     */
+    private final Object summaryLock = new Object();
+
+    private Samples lastSamples;
+
+    /**
+     * @param properties profiling settings
+     */
+    public Profiler(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    private void init() {
+        if (!properties.getContinuous()) {
+            return;
+        }
+        continuous = new Recording(configuration("default"));
+        continuous.setName("continuous");
+        continuous.setToDisk(true);
+        continuous.setMaxAge(properties.getMaxAge());
+        continuous.setMaxSize(properties.getMaxSize().toBytes());
+        continuous.start();
+        log.info("Started continuous flight recording, max age {}", properties.getMaxAge());
+    }
+
+    /**
+     * Start an on demand recording, it stops by itself after the duration
+     *
+     * @param profile  JFR settings, default or profile
+     * @param duration recording duration
+     * @return recording
+     * @throws IllegalArgumentException for an unknown profile or a duration over the limit
+     * @throws IllegalStateException    when all recording slots are running
+     */
+    public synchronized RecordingInfo start(String profile, Duration duration) {
+        if (!PROFILES.contains(profile)) {
+            throw new IllegalArgumentException("Profile must be one of " + PROFILES);
+        }
+        Duration maxDuration = properties.getMaxDuration();
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be positive and at most " + maxDuration);
+        }
+        if (recordings.size() >= MAX_RECORDINGS) {
+            Recording finished = recordings.values().stream()
+                    .filter(recording -> recording.getState() != RecordingState.RUNNING)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Too many running recordings"));
+            close(finished.getId());
+        }
+        Recording recording = new Recording(configuration(profile));
+        recording.setName(profile);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        try {
+            // a destination keeps the data readable once the recording stopped
+            recording.setDestination(Files.createTempFile("tms-recording-", ".jfr"));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started {} flight recording {} for {}", profile, recording.getId(), duration);
+        return info(recording);
+    }
+
+    /**
+     * Stop a recording before its duration elapsed
+     *
+     * @param id recording id
+     * @return recording
+     * @throws NoSuchElementException for an unknown id
+     */
+    public synchronized RecordingInfo stop(long id) {
+        Recording recording = get(id);
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return info(recording);
+    }
+
+    /**
+     * Close a recording and delete its data
+     *
+     * @param id recording id
+     * @throws NoSuchElementException for an unknown id
+     */
+    public synchronized void close(long id) {
+        Recording recording = get(id);
+        recordings.remove(id);
+        Path destination = recording.getDestination();
+        recording.close();
+        try {
+            Files.deleteIfExists(destination);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the continuous recording runs
+     */
+    public boolean isContinuous() {
+        return continuous != null;
+    }
+
+    /**
+     * @return on demand recordings, oldest first
+     */
+    public synchronized List<RecordingInfo> list() {
+        return recordings.values().stream().map(Profiler::info).toList();
+    }
+
+    /**
+     * Read a recording as a .jfr file, a running recording is read up to now
+     *
+     * @param id recording id
+     * @return stream of the file, to be closed by the caller
+     * @throws NoSuchElementException for an unknown id
+     */
+    public InputStream open(long id) throws IOException {
+        Recording recording;
+        synchronized (this) {
+            recording = get(id);
+        }
+        if (recording.getState() == RecordingState.STOPPED) {
+            return Files.newInputStream(recording.getDestination());
+        }
+        return dump(recording);
+    }
+
+    /**
+     * Read the continuous recording as a .jfr file
+     *
+     * @return stream of the file, to be closed by the caller
+     * @throws IllegalStateException when the continuous recording is disabled
+     */
+    public InputStream openContinuous() throws IOException {
+        return dump(continuous());
+    }
+
+    /**
+     * Summarise a recent window of the continuous recording.
+     * The samples of a window are reused for the summary interval, and only one request at a time
+     * reads the recording, the others wait for it and share the samples.
+     *
+     * @param window how far to look back
+     * @param top    number of entries per list
+     * @return hottest methods and allocation sites
+     * @throws IllegalStateException when the continuous recording is disabled
+     */
+    public ProfileSummary summary(Duration window, int top) throws IOException {
+        Recording recording = continuous();
+        Samples samples;
+        synchronized (summaryLock) {
+            Instant now = Instant.now();
+            if (lastSamples == null || !lastSamples.window().equals(window)
+                    || lastSamples.to().plus(properties.getSummaryInterval()).isBefore(now)) {
+                lastSamples = read(recording, window, now);
+            }
+            samples = lastSamples;
+        }
+        return ProfileSummary.builder()
+                .from(samples.to().minus(samples.window()))
+                .to(samples.to())
+                .executionSamples(samples.executionSamples())
+                .allocatedBytes(samples.allocatedBytes())
+                .hottestMethods(top(samples.methods(), samples.executionSamples(), top))
+                .allocationSites(top(samples.sites(), samples.allocatedBytes(), top))
+                .build();
+    }
+
+    @PreDestroy
+    private synchronized void shutdown() {
+        for (Long id : new ArrayList<>(recordings.keySet())) {
+            close(id);
+        }
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    /**
+     * Count the samples of a window, chunks of the dump that ended before the window are skipped unread
+     */
+    private static Samples read(Recording recording, Duration window, Instant to) throws IOException {
+        Instant from = to.minus(window);
+        Map<String, Long> methods = new HashMap<>();
+        Map<String, Long> sites = new HashMap<>();
+        long[] totals = new long[2];
+        Path file = Files.createTempFile("tms-summary-", ".jfr");
+        try {
+            recording.dump(file);
+            try (EventStream events = EventStream.openFile(file)) {
+                events.setStartTime(from);
+                events.onEvent("jdk.ExecutionSample", event -> {
+                    totals[0]++;
+                    methods.merge(topFrame(event.getStackTrace()), 1L, Long::sum);
+                });
+                events.onEvent("jdk.ObjectAllocationSample", event -> {
+                    long weight = event.getLong("weight");
+                    totals[1] += weight;
+                    sites.merge(allocationSite(event.getStackTrace()), weight, Long::sum);
+                });
+                events.start();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        return new Samples(window, to, totals[0], totals[1], methods, sites);
+    }
+
+    private Recording continuous() {
+        if (continuous == null) {
+            throw new IllegalStateException("Continuous recording is disabled");
+        }
+        return continuous;
+    }
+
+    private Recording get(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new NoSuchElementException("Recording not found");
+        }
+        return recording;
+    }
+
+    /**
+     * Dump a recording to a temporary file that is deleted when its stream is closed
+     */
+    private static InputStream dump(Recording recording) throws IOException {
+        Path file = Files.createTempFile("tms-dump-", ".jfr");
+        try {
+            recording.dump(file);
+            return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static Configuration configuration(String profile) {
+        try {
+            return Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR settings " + profile + " not available", e);
+        }
+    }
+
+    private static RecordingInfo info(Recording recording) {
+        return RecordingInfo.builder()
+                .id(recording.getId())
+                .profile(recording.getName())
+                .state(recording.getState().name())
+                .start(recording.getStartTime())
+                .duration(recording.getDuration())
+                .build();
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String allocationSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!isJdk(type)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return topFrame(stackTrace);
+    }
+
+    private static boolean isJdk(String type) {
+        for (String prefix : JDK_PACKAGES) {
+            if (type.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Hotspot> top(Map<String, Long> values, long total, int limit) {
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .map(entry -> Hotspot.builder()
+                        .frame(entry.getKey())
+                        .value(entry.getValue())
+                        .percent(total == 0 ? 0 : 100.0 * entry.getValue() / total)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Sample counts of a window, kept for the summary interval
+     */
+    private record Samples(Duration window, Instant to, long executionSamples, long allocatedBytes,
+                           Map<String, Long> methods, Map<String, Long> sites) {
+    }
+}
@@ -0,0 +1,68 @@
+package tms.common.service;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import tms.common.model.SpanRecord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Span exporter keeping the most recent spans in memory, for looking at traces locally without a collector.
+ */
+public class RecentSpans implements SpanExporter {
+
+    private final int capacity;
+
+    private final Deque<SpanRecord> spans = new ArrayDeque<>();
+
+    /**
+     * @param capacity number of spans kept, older spans are dropped
+     */
+    public RecentSpans(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> batch) {
+        for (SpanData span : batch) {
+            if (spans.size() == capacity) {
+                spans.removeFirst();
+            }
+            spans.addLast(FileSpanExporter.toRecord(span));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Spans of a trace that are still kept
+     *
+     * @param traceId trace id
+     * @return spans ordered by start time
+     */
+    public synchronized List<SpanRecord> trace(String traceId) {
+        List<SpanRecord> trace = new ArrayList<>();
+        for (SpanRecord span : spans) {
+            if (span.getTraceId().equals(traceId)) {
+                trace.add(span);
+            }
+        }
+        trace.sort((a, b) -> a.getStart().compareTo(b.getStart()));
+        return trace;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+}
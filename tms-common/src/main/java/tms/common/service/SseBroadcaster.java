@@ -0,0 +1,201 @@
+package tms.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes Server-Sent Events to any number of subscribers.
+ * Publishing only queues the event, each subscriber has a bounded queue drained by a sender thread,
+ * so a slow subscriber never delays the publisher or the others. A subscriber whose queue is full is disconnected,
+ * when it reconnects with a Last-Event-ID other than the last id published it has missed events
+ * and is sent a RESET event first, nothing is replayed.
+ */
+@Slf4j
+public class SseBroadcaster {
+
+    /**
+     * Name of the event telling a subscriber that missed events to reload
+     */
+    public static final String RESET = "RESET";
+
+    private final int bufferSize;
+
+    private final Duration timeout;
+
+    private final String resetData;
+
+    /**
+     * Id of the last event published
+     */
+    private volatile String lastId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "tms-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tms-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param bufferSize        events queued per subscriber
+     * @param heartbeatInterval interval of the keep alive comments that also reveal dead connections
+     * @param timeout           streams are closed after this long, clients reconnect by themselves
+     * @param resetData         data of the RESET event
+     */
+    public SseBroadcaster(int bufferSize, Duration heartbeatInterval, Duration timeout, String resetData) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.resetData = resetData;
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream of events
+     *
+     * @param lastEventId id of the last event a reconnecting client received, null for a new client
+     * @return emitter completing when the client goes away, the stream times out or the client falls behind
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        String id = lastId;
+        if (lastEventId != null && !lastEventId.equals(id)) {
+            subscriber.offer(message(RESET, id, resetData));
+        }
+        return emitter;
+    }
+
+    /**
+     * Push an event to all subscribers
+     *
+     * @param name event name
+     * @param id   event id, null if the event has none
+     * @param data event data
+     */
+    public void publish(String name, String id, String data) {
+        if (id != null) {
+            lastId = id;
+        }
+        Set<DataWithMediaType> message = message(name, id, data);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    /**
+     * @return number of connected subscribers
+     */
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Complete all streams and stop the sender and heartbeat threads
+     */
+    public void close() {
+        heartbeats.shutdownNow();
+        // open streams would otherwise hold up the graceful shutdown
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+
+    private void heartbeat() {
+        Set<DataWithMediaType> message = SseEmitter.event().comment("").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    private static Set<DataWithMediaType> message(String name, String id, String data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data);
+        if (id != null) {
+            event.id(id);
+        }
+        // built once and shared by all subscribers
+        return event.build();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> message) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                log.warn("Event subscriber fell {} events behind, disconnecting it", queue.size());
+                close();
+                queue.clear();
+            }
+            // the sender completes a closed emitter, completing it here could wait for a blocked send
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> message;
+                while (!closed && (message = queue.poll()) != null) {
+                    emitter.send(message);
+                }
+                if (closed) {
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away, the container reports the error to the emitter as well
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // a message queued after the last poll but before the flag was cleared still needs a sender
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
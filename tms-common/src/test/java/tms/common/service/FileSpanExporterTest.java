@@ -0,0 +1,73 @@
+package tms.common.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tms.common.model.SpanRecord;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSpanExporterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesOneJsonSpanPerLine() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        try (SdkTracerProvider provider = RecentSpansTest.tracerProvider(new FileSpanExporter(file, mapper.writer()))) {
+            Tracer tracer = provider.get("test");
+            Span span = tracer.spanBuilder("GET /tasks")
+                    .setSpanKind(SpanKind.SERVER)
+                    .setAttribute("http.method", "GET")
+                    .setAttribute("http.status_code", 500L)
+                    .setStartTimestamp(1_000, TimeUnit.MILLISECONDS)
+                    .startSpan();
+            span.setStatus(StatusCode.ERROR);
+            span.end(1_250, TimeUnit.MILLISECONDS);
+            tracer.spanBuilder("second").startSpan().end();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        SpanRecord record = mapper.readValue(lines.get(0), SpanRecord.class);
+        assertEquals("tms-test", record.getService());
+        assertEquals("GET /tasks", record.getName());
+        assertEquals("SERVER", record.getKind());
+        assertEquals("ERROR", record.getStatus());
+        assertEquals(Instant.ofEpochMilli(1_000), record.getStart());
+        assertEquals(250_000, record.getDurationMicros());
+        assertEquals(Map.of("http.method", "GET", "http.status_code", "500"), record.getAttributes());
+        assertNull(record.getParentSpanId());
+        assertEquals(32, record.getTraceId().length());
+    }
+
+    @Test
+    void appendsToExistingFile() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        Files.writeString(file, "{}\n");
+        try (SdkTracerProvider provider = RecentSpansTest.tracerProvider(new FileSpanExporter(file, mapper.writer()))) {
+            provider.get("test").spanBuilder("span").startSpan().end();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("{}", lines.get(0));
+        assertEquals("span", mapper.readValue(lines.get(1), SpanRecord.class).getName());
+    }
+}
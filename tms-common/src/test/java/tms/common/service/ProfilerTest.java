@@ -0,0 +1,145 @@
+package tms.common.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import tms.common.ProfilingProperties;
+import tms.common.model.Hotspot;
+import tms.common.model.ProfileSummary;
+import tms.common.model.RecordingInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfilerTest {
+
+    private Profiler profiler;
+
+    @AfterEach
+    void shutdown() {
+        ReflectionTestUtils.invokeMethod(profiler, "shutdown");
+    }
+
+    @Test
+    void summarisesAndReusesRecentSamples() throws IOException {
+        start(true);
+        assertNotEquals(0, spin(Duration.ofSeconds(1)));
+
+        ProfileSummary summary = profiler.summary(Duration.ofMinutes(1), 5);
+
+        assertTrue(summary.getExecutionSamples() > 0);
+        assertEquals(Duration.ofMinutes(1), Duration.between(summary.getFrom(), summary.getTo()));
+        assertFalse(summary.getHottestMethods().isEmpty());
+        assertTrue(summary.getHottestMethods().size() <= 5);
+        assertTrue(summary.getHottestMethods().stream().mapToDouble(Hotspot::getPercent).sum() <= 100.001);
+
+        ProfileSummary fewer = profiler.summary(Duration.ofMinutes(1), 1);
+        assertEquals(summary.getTo(), fewer.getTo());
+        assertEquals(summary.getExecutionSamples(), fewer.getExecutionSamples());
+        assertEquals(1, fewer.getHottestMethods().size());
+
+        ProfileSummary otherWindow = profiler.summary(Duration.ofSeconds(30), 5);
+        assertNotEquals(summary.getTo(), otherWindow.getTo());
+    }
+
+    @Test
+    void summaryNeedsContinuousRecording() {
+        start(false);
+
+        assertFalse(profiler.isContinuous());
+        assertThrows(IllegalStateException.class, () -> profiler.summary(Duration.ofMinutes(1), 5));
+        assertThrows(IllegalStateException.class, () -> profiler.openContinuous());
+    }
+
+    @Test
+    void closesStoppedRecordingToMakeRoom() {
+        start(false);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < Profiler.MAX_RECORDINGS; i++) {
+            ids.add(profiler.start("default", Duration.ofMinutes(1)).getId());
+        }
+        assertThrows(IllegalStateException.class, () -> profiler.start("default", Duration.ofMinutes(1)));
+
+        profiler.stop(ids.get(1));
+        long added = profiler.start("default", Duration.ofMinutes(1)).getId();
+
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(3), added),
+                profiler.list().stream().map(RecordingInfo::getId).toList());
+        assertThrows(NoSuchElementException.class, () -> profiler.open(ids.get(1)));
+    }
+
+    @Test
+    void rejectsUnknownProfileAndLongDuration() {
+        start(false);
+
+        assertThrows(IllegalArgumentException.class, () -> profiler.start("verbose", Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> profiler.start("default", Duration.ofMinutes(11)));
+        assertThrows(IllegalArgumentException.class, () -> profiler.start("default", Duration.ZERO));
+        assertTrue(profiler.list().isEmpty());
+    }
+
+    @Test
+    void stopKeepsDataUntilClose() throws IOException {
+        start(false);
+        long before = recordingFiles();
+        long id = profiler.start("profile", Duration.ofMinutes(1)).getId();
+        try (InputStream running = profiler.open(id)) {
+            assertTrue(running.readAllBytes().length > 0);
+        }
+
+        assertEquals("STOPPED", profiler.stop(id).getState());
+        assertEquals("STOPPED", profiler.stop(id).getState());
+        try (InputStream stopped = profiler.open(id)) {
+            assertTrue(stopped.readAllBytes().length > 0);
+        }
+        assertEquals(before + 1, recordingFiles());
+
+        profiler.close(id);
+
+        assertEquals(before, recordingFiles());
+        assertTrue(profiler.list().isEmpty());
+        assertThrows(NoSuchElementException.class, () -> profiler.stop(id));
+        assertThrows(NoSuchElementException.class, () -> profiler.close(id));
+    }
+
+    private void start(boolean continuous) {
+        ProfilingProperties properties = new ProfilingProperties();
+        properties.setContinuous(continuous);
+        properties.setMaxAge(Duration.ofMinutes(5));
+        properties.setMaxSize(DataSize.ofMegabytes(50));
+        properties.setMaxDuration(Duration.ofMinutes(10));
+        properties.setSummaryInterval(Duration.ofMinutes(1));
+        profiler = new Profiler(properties);
+        ReflectionTestUtils.invokeMethod(profiler, "init");
+    }
+
+    /**
+     * Keep a thread busy so execution samples are taken
+     */
+    private static long spin(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        long sum = 0;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 10_000; i++) {
+                sum += Long.hashCode(sum * 31 + i);
+            }
+        }
+        return sum;
+    }
+
+    private static long recordingFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("tms-recording-")).count();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package tms.common.service;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+import tms.common.model.SpanRecord;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecentSpansTest {
+
+    /**
+     * Tracer exporting every span to the exporter as soon as it ends
+     */
+    static SdkTracerProvider tracerProvider(SpanExporter exporter) {
+        return SdkTracerProvider.builder()
+                .setResource(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), "tms-test")))
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+    }
+
+    @Test
+    void dropsOldestSpansOverCapacity() {
+        RecentSpans spans = new RecentSpans(2);
+        try (SdkTracerProvider provider = tracerProvider(spans)) {
+            Tracer tracer = provider.get("test");
+            Span first = tracer.spanBuilder("first").startSpan();
+            first.end();
+            Span second = tracer.spanBuilder("second").startSpan();
+            second.end();
+            Span third = tracer.spanBuilder("third").startSpan();
+            third.end();
+
+            assertTrue(spans.trace(first.getSpanContext().getTraceId()).isEmpty());
+            assertEquals("second", spans.trace(second.getSpanContext().getTraceId()).get(0).getName());
+            assertEquals("third", spans.trace(third.getSpanContext().getTraceId()).get(0).getName());
+        }
+    }
+
+    @Test
+    void listsSpansOfOneTraceByStartTime() {
+        RecentSpans spans = new RecentSpans(10);
+        try (SdkTracerProvider provider = tracerProvider(spans)) {
+            Tracer tracer = provider.get("test");
+            Span parent = tracer.spanBuilder("GET /").setStartTimestamp(1000, TimeUnit.MILLISECONDS).startSpan();
+            Span child = tracer.spanBuilder("TaskRepository.findById")
+                    .setParent(parent.storeInContext(Context.root()))
+                    .setStartTimestamp(1010, TimeUnit.MILLISECONDS)
+                    .startSpan();
+            Span other = tracer.spanBuilder("GET /other").setStartTimestamp(1005, TimeUnit.MILLISECONDS).startSpan();
+            // children end first, so they are exported before their parent
+            child.end(1020, TimeUnit.MILLISECONDS);
+            other.end(1030, TimeUnit.MILLISECONDS);
+            parent.end(1040, TimeUnit.MILLISECONDS);
+
+            List<SpanRecord> trace = spans.trace(parent.getSpanContext().getTraceId());
+
+            assertEquals(List.of("GET /", "TaskRepository.findById"), trace.stream().map(SpanRecord::getName).toList());
+            assertNull(trace.get(0).getParentSpanId());
+            assertEquals(parent.getSpanContext().getSpanId(), trace.get(1).getParentSpanId());
+            assertEquals("tms-test", trace.get(1).getService());
+            assertEquals(10_000, trace.get(1).getDurationMicros());
+            assertTrue(spans.trace("00000000000000000000000000000001").isEmpty());
+        }
+    }
+}
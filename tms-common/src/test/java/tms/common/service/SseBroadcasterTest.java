@@ -0,0 +1,126 @@
+package tms.common.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SseBroadcasterTest {
+
+    private static final String RESET_DATA = "{\"type\":\"RESET\"}";
+
+    private final SseBroadcaster broadcaster = new SseBroadcaster(2, Duration.ofHours(1), Duration.ofMinutes(1),
+            RESET_DATA);
+
+    @AfterEach
+    void close() {
+        broadcaster.close();
+    }
+
+    @Test
+    void disconnectsSubscriberWithFullQueue() throws InterruptedException {
+        TestEmitter slow = new TestEmitter(new CountDownLatch(1));
+        TestEmitter fast = new TestEmitter(new CountDownLatch(0));
+        broadcaster.subscribe(slow, null);
+        broadcaster.subscribe(fast, null);
+
+        broadcaster.publish("UPDATED", "b-1", "{}");
+        // the sender of the slow subscriber is now blocked, the next two events fill its queue
+        assertTrue(next(slow).contains("id:b-1\n"));
+        broadcaster.publish("UPDATED", "b-2", "{}");
+        broadcaster.publish("UPDATED", "b-3", "{}");
+        assertEquals(2, broadcaster.getSubscribers());
+        broadcaster.publish("UPDATED", "b-4", "{}");
+
+        assertEquals(1, broadcaster.getSubscribers());
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(next(fast).contains("id:b-" + i + "\n"));
+        }
+        slow.release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.sent.isEmpty());
+        assertEquals(1, fast.completed.getCount());
+    }
+
+    @Test
+    void resetsSubscriberWithStaleLastEventId() throws InterruptedException {
+        broadcaster.publish("UPDATED", "b-7", "{}");
+        TestEmitter stale = new TestEmitter(new CountDownLatch(0));
+        TestEmitter current = new TestEmitter(new CountDownLatch(0));
+        TestEmitter fresh = new TestEmitter(new CountDownLatch(0));
+
+        broadcaster.subscribe(stale, "b-6");
+        broadcaster.subscribe(current, "b-7");
+        broadcaster.subscribe(fresh, null);
+        broadcaster.publish("DELETED", "b-8", "{}");
+
+        String reset = next(stale);
+        assertTrue(reset.contains("id:b-7\n"));
+        assertTrue(reset.contains("event:" + SseBroadcaster.RESET + "\n"));
+        assertTrue(reset.contains(RESET_DATA));
+        assertTrue(next(stale).contains("id:b-8\n"));
+        assertTrue(next(current).contains("id:b-8\n"));
+        assertTrue(next(fresh).contains("id:b-8\n"));
+    }
+
+    @Test
+    void sendsEventQueuedAfterLastPoll() throws InterruptedException {
+        TestEmitter emitter = new TestEmitter(new CountDownLatch(0));
+        broadcaster.subscribe(emitter, null);
+
+        for (int i = 0; i < 10_000; i++) {
+            broadcaster.publish("UPDATED", "b-" + i, "{}");
+            // publishing the next event races with the sender finishing its drain, it must not be left queued
+            String sent = emitter.sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(sent, "Event " + i + " was not sent");
+            assertTrue(sent.contains("id:b-" + i + "\n"));
+        }
+    }
+
+    private static String next(TestEmitter emitter) throws InterruptedException {
+        String sent = emitter.sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(sent);
+        return sent;
+    }
+
+    /**
+     * Emitter recording what is sent, sends block until released
+     */
+    private static class TestEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        TestEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                event.append(item.getData());
+            }
+            sent.add(event.toString());
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
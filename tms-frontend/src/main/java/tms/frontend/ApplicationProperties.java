@@ -1,5 +1,8 @@
 package tms.frontend;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,6 +10,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Application Properties.
  */
@@ -22,4 +28,186 @@ public class ApplicationProperties {
     @NotNull
     private String tmsBackendApiAddress;
 
+    /**
+     * Number of tasks shown per page in the task list
+     */
+    @NotNull
+    @Min(1)
+    @Max(500)
+    private Integer taskPageSize;
+
+    /**
+     * Max number of description characters shown in the task list, the backend cuts longer descriptions
+     */
+    @NotNull
+    @Min(1)
+    private Integer taskListDescriptionLength;
+
+    /**
+     * How often an open dashboard reloads its counts
+     */
+    @NotNull
+    private Duration dashboardRefreshInterval;
+
+    /**
+     * Number of backend GET responses kept for ETag revalidation
+     */
+    @NotNull
+    @Min(1)
+    private Integer conditionalCacheSize;
+
+    /**
+     * Max number of tasks, and separately of task pages, cached in process
+     */
+    @NotNull
+    @Min(1)
+    private Long taskCacheMaxSize;
+
+    /**
+     * How long a cached task or task page is served before asking the backend again
+     */
+    @NotNull
+    private Duration taskCacheTtl;
+
+    /**
+     * HTTP transport used for backend calls
+     */
+    @NotNull
+    @Valid
+    private BackendClient backendClient;
+
+    /**
+     * Live task events relayed from the backend
+     */
+    @NotNull
+    @Valid
+    private Events events;
+
+    /**
+     * Live task event settings.
+     */
+    @Getter
+    @Setter
+    public static class Events {
+        /**
+         * Events queued per browser, a browser falling further behind is disconnected
+         */
+        @NotNull
+        @Min(1)
+        private Integer bufferSize;
+        /**
+         * Interval of the keep alive comments that also reveal dead connections
+         */
+        @NotNull
+        private Duration heartbeatInterval;
+        /**
+         * Browser streams are closed after this long, browsers reconnect by themselves
+         */
+        @NotNull
+        private Duration timeout;
+        /**
+         * First delay before reconnecting to the backend stream, doubled on every failed attempt up to a minute
+         */
+        @NotNull
+        private Duration reconnectDelay;
+        /**
+         * The backend stream is reconnected when nothing, not even a heartbeat, was read for this long
+         */
+        @NotNull
+        private Duration idleTimeout;
+    }
+
+    /**
+     * Backend HTTP transport settings.
+     */
+    @Getter
+    @Setter
+    public static class BackendClient {
+        /**
+         * Client implementation
+         */
+        @NotNull
+        private Transport transport;
+        /**
+         * Preferred HTTP version of the JDK client, HTTP_2 upgrades cleartext connections with h2c
+         */
+        @NotNull
+        private HttpClient.Version httpVersion;
+        /**
+         * Max concurrent backend calls, and max idle connections kept by the JDK client
+         */
+        @NotNull
+        @Min(1)
+        private Integer maxConnections;
+        /**
+         * Max calls waiting for one of the max connections, further calls fail with 503
+         */
+        @NotNull
+        @Min(0)
+        private Integer maxQueued;
+        /**
+         * How long a call waits for a connection before it fails with 503, the read timeout starts after that
+         */
+        @NotNull
+        private Duration queueTimeout;
+        @NotNull
+        private Duration connectTimeout;
+        @NotNull
+        private Duration readTimeout;
+        /**
+         * How long the JDK client keeps idle connections open
+         */
+        @NotNull
+        private Duration keepAlive;
+        /**
+         * Representation requested from and sent to the backend
+         */
+        @NotNull
+        private WireFormat format;
+        /**
+         * Ask the backend to gzip responses
+         */
+        @NotNull
+        private Boolean compression;
+    }
+
+    /**
+     * Backend HTTP transports.
+     */
+    public enum Transport {
+        /**
+         * Feign default client on HttpURLConnection, which cannot send PATCH so status changes fail
+         */
+        URL_CONNECTION,
+        /**
+         * Pooled java.net.http client
+         */
+        JDK_HTTP_CLIENT
+    }
+
+    /**
+     * Backend request and response body formats, all mapped with the same Jackson settings.
+     */
+    public enum WireFormat {
+        JSON("application/json"),
+        /**
+         * Binary JSON with back references to repeated names, smaller and faster to decode than JSON
+         */
+        SMILE("application/x-jackson-smile"),
+        /**
+         * Concise Binary Object Representation, RFC 8949
+         */
+        CBOR("application/cbor");
+
+        private final String mediaType;
+
+        WireFormat(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+    }
+
 }
@@ -4,23 +4,37 @@ import feign.FeignException;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import tms.frontend.ApplicationProperties;
 import tms.frontend.error.ResourceNotFoundException;
 import tms.frontend.error.ServerInternalErrorException;
+import tms.frontend.error.ServiceUnavailableException;
+import tms.frontend.model.Status;
 import tms.frontend.model.Task;
 import tms.frontend.model.TaskDTO;
+import tms.frontend.model.TaskFilter;
+import tms.frontend.model.TaskPatch;
+import tms.frontend.service.TaskEventBus;
 import tms.frontend.service.TaskService;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This class is the main controller for the tasks web interface.
+ * Handlers return futures so request threads are released while backend calls are in flight.
  */
 @Slf4j
 @Controller
@@ -29,31 +43,80 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private TaskEventBus eventBus;
+
 
     @GetMapping
-    public String index(Model model) {
-        return listAllTasks(model);
+    public CompletableFuture<String> index(Model model) {
+        return listAllTasks(null, null, new TaskFilter(), model);
     }
 
     /**
-     * List all tasks.
+     * List a page of filtered tasks.
      *
-     * @param model model
+     * @param after  cursor of the last task on the previous page
+     * @param before cursor of the first task on the next page
+     * @param filter filter and sort
+     * @param model  model
      * @return view
      */
     @GetMapping("/task-list")
-    public String listAllTasks(Model model) {
-        try {
-            List<Task> tasks = taskService.getAllTasks();
-            model.addAttribute("tasks", tasks);
-            log.info("Retrieved {} tasks", tasks.size());
+    public CompletableFuture<String> listAllTasks(@RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) String before,
+                                                  @ModelAttribute("filter") TaskFilter filter,
+                                                  Model model) {
+        model.addAttribute("filter", filter);
+        model.addAttribute("statuses", Status.values());
+        model.addAttribute("openThisWeek", TaskFilter.openDueInWeekOf(LocalDate.now()).toQuery());
+        model.addAttribute("descriptionLength", applicationProperties.getTaskListDescriptionLength());
+        return taskService.getTaskPage(filter, after, before).handle((page, e) -> {
+            if (e != null) {
+                log.error("Got error: ", e);
+                model.addAttribute("opResult", "error");
+            } else {
+                model.addAttribute("tasks", page.getItems());
+                model.addAttribute("page", page);
+                log.info("Retrieved {} tasks", page.getItems().size());
+            }
+            return "tasks";
+        });
+    }
 
-        } catch (Exception e) {
-            log.error("Got error: ", e);
-            model.addAttribute("opResult", "error");
+    /**
+     * Dashboard with task counts, the page reloads itself at the configured interval.
+     *
+     * @param model model
+     * @return view
+     */
+    @GetMapping("/dashboard")
+    public CompletableFuture<String> dashboard(Model model) {
+        model.addAttribute("statuses", Status.values());
+        model.addAttribute("refreshSeconds", applicationProperties.getDashboardRefreshInterval().toSeconds());
+        return taskService.getTaskStats().handle((stats, e) -> {
+            if (e != null) {
+                log.error("Got error: ", e);
+                model.addAttribute("opResult", "error");
+            } else {
+                model.addAttribute("stats", stats);
+            }
+            return "dashboard";
+        });
+    }
 
-        }
-        return "tasks";
+    /**
+     * Live task events for the open task lists, relayed from the backend.
+     *
+     * @param lastEventId id of the last event received before the browser reconnected
+     * @return event stream
+     */
+    @GetMapping(value = "/task-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter taskEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return eventBus.subscribe(lastEventId);
     }
 
     /**
@@ -76,17 +139,13 @@ public class TaskController {
      * @return view
      */
     @GetMapping("/edit-task/{id}")
-    public String editTask(@PathVariable String id, Model model) {
-        try {
-            Task task = taskService.getTask(id);
+    public CompletableFuture<String> editTask(@PathVariable String id, Model model) {
+        return taskService.getTask(id).handle((task, e) -> {
+            failOn(e);
             log.info("Editing task {}", task);
             model.addAttribute("taskDto", TaskDTO.fromTask(task));
-        } catch (FeignException.NotFound e) {
-            throw new ResourceNotFoundException();
-        } catch (Exception e) {
-            throw new ServerInternalErrorException();
-        }
-        return "edit";
+            return "edit";
+        });
     }
 
     /**
@@ -97,17 +156,13 @@ public class TaskController {
      * @return view
      */
     @GetMapping("/task-details/{id}")
-    public String taskDetails(@PathVariable String id, Model model) {
-        try {
-            Task task = taskService.getTask(id);
+    public CompletableFuture<String> taskDetails(@PathVariable String id, Model model) {
+        return taskService.getTask(id).handle((task, e) -> {
+            failOn(e);
             model.addAttribute("taskDto", TaskDTO.fromTask(task));
             log.info("Details for task {}", task);
-        } catch (FeignException.NotFound e) {
-            throw new ResourceNotFoundException();
-        } catch (Exception e) {
-            throw new ServerInternalErrorException();
-        }
-        return "details";
+            return "details";
+        });
     }
 
     /**
@@ -118,17 +173,15 @@ public class TaskController {
      * @return view
      */
     @GetMapping("/delete-task/{id}")
-    public String deleteTask(@PathVariable String id, Model model) {
-        try {
-            taskService.deleteTask(id);
-            model.addAttribute("opResult", "success");
-            log.info("Deleted task {}", id);
-        } catch (FeignException.NotFound e) {
-            throw new ResourceNotFoundException();
-        } catch (Exception e) {
-            throw new ServerInternalErrorException();
-        }
-        return listAllTasks(model);
+    public CompletableFuture<String> deleteTask(@PathVariable String id, Model model) {
+        return taskService.deleteTask(id)
+                .handle((ignored, e) -> {
+                    failOn(e);
+                    model.addAttribute("opResult", "success");
+                    log.info("Deleted task {}", id);
+                    return model;
+                })
+                .thenCompose(m -> listAllTasks(null, null, new TaskFilter(), m));
     }
 
     /**
@@ -140,25 +193,75 @@ public class TaskController {
      * @return view
      */
     @PostMapping("/save-task")
-    public String saveTask(Model model,
-                           @ModelAttribute("taskDto")
-                           @Valid TaskDTO taskDto,
-                           RedirectAttributes redirectAttrs) {
+    public CompletableFuture<String> saveTask(Model model,
+                                              @ModelAttribute("taskDto")
+                                              @Valid TaskDTO taskDto,
+                                              RedirectAttributes redirectAttrs) {
+        CompletableFuture<Task> saved;
         try {
             Task task = taskDto.toTask();
             if (task.getId() != null) {
-                taskService.updateTask(task);
+                saved = taskService.updateTask(task);
                 log.info("Updated task: {}", task);
             } else {
                 log.info("Created task: {}", task);
-                taskService.createTask(task);
+                saved = taskService.createTask(task);
             }
-            redirectAttrs.addAttribute("opResult", "success");
         } catch (Exception e) {
-            log.error("Got error: ", e);
-            redirectAttrs.addAttribute("opResult", "error");
+            saved = CompletableFuture.failedFuture(e);
+        }
+        return saved.handle((ignored, e) -> {
+            if (e != null) {
+                log.error("Got error: ", e);
+                redirectAttrs.addAttribute("opResult", "error");
+            } else {
+                redirectAttrs.addAttribute("opResult", "success");
+            }
+            return "redirect:/";
+        });
+    }
+
+    /**
+     * Change the status of a task, only the status is sent to the backend.
+     *
+     * @param id            task id
+     * @param status        new status
+     * @param redirectAttrs redirect attributes
+     * @return view
+     */
+    @PostMapping("/task-status/{id}")
+    public CompletableFuture<String> changeStatus(@PathVariable String id,
+                                                  @RequestParam Status status,
+                                                  RedirectAttributes redirectAttrs) {
+        return taskService.patchTask(id, TaskPatch.builder().status(status).build()).handle((task, e) -> {
+            if (e != null) {
+                log.error("Got error: ", e);
+                redirectAttrs.addAttribute("opResult", "error");
+            } else {
+                log.info("Changed status of task {} to {}", id, status);
+                redirectAttrs.addAttribute("opResult", "success");
+            }
+            return "redirect:/";
+        });
+    }
+
+    /**
+     * Map a failed backend call to the error page.
+     *
+     * @param e failure of the backend call, null on success
+     */
+    private static void failOn(Throwable e) {
+        if (e == null) {
+            return;
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof FeignException.NotFound) {
+            throw new ResourceNotFoundException();
+        }
+        if (cause instanceof ServiceUnavailableException unavailable) {
+            throw unavailable;
         }
-        return "redirect:/";
+        throw new ServerInternalErrorException();
     }
 
 
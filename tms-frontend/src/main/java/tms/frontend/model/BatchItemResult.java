@@ -0,0 +1,21 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+/**
+ * Outcome of a single batch operation.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class BatchItemResult {
+    private int index;
+    private BatchOperation.Type type;
+    private String id;
+    private int status;
+    private String error;
+}
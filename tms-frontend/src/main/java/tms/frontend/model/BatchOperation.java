@@ -0,0 +1,57 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+/**
+ * A single create, update or delete inside a batch request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class BatchOperation {
+
+    /**
+     * Batch operation type
+     */
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private Type type;
+    private String id;
+    private Task task;
+
+    /**
+     * Create operation
+     *
+     * @param task task to create
+     * @return BatchOperation
+     */
+    public static BatchOperation create(Task task) {
+        return new BatchOperation(Type.CREATE, null, task);
+    }
+
+    /**
+     * Update operation
+     *
+     * @param task task to update
+     * @return BatchOperation
+     */
+    public static BatchOperation update(Task task) {
+        return new BatchOperation(Type.UPDATE, null, task);
+    }
+
+    /**
+     * Delete operation
+     *
+     * @param id task id
+     * @return BatchOperation
+     */
+    public static BatchOperation delete(String id) {
+        return new BatchOperation(Type.DELETE, id, null);
+    }
+}
@@ -0,0 +1,25 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Result of a batch request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class BatchResult {
+    private List<BatchItemResult> items;
+    private int inserted;
+    private int matched;
+    private int modified;
+    private int upserted;
+    private int deleted;
+    private int failed;
+}
@@ -0,0 +1,20 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Number of open tasks due on a day.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class DayCount {
+    private LocalDate day;
+    private long count;
+}
@@ -21,4 +21,9 @@ public class Task {
     private String description;
     private Status status;
     private LocalDateTime due;
+    private Long version;
+    /**
+     * Change sequence number of the last write, set by the backend
+     */
+    private Long seq;
 }
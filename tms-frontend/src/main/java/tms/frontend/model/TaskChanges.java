@@ -0,0 +1,28 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Tasks written and deleted since a change sequence number, or all tasks for a full sync.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskChanges {
+    /**
+     * True if the tasks replace everything held so far
+     */
+    private boolean full;
+    /**
+     * Sequence number to ask for the next changes with
+     */
+    private long seq;
+    private List<Task> tasks;
+    private List<TaskTombstone> deleted;
+}
@@ -22,6 +22,7 @@ public class TaskDTO {
     private String description;
     private Status status;
     private String due;
+    private Long version;
 
     /**
      * Convert DTO to Entity
@@ -33,7 +34,7 @@ public class TaskDTO {
             id = null;//blank id is bad, better
         }
         return new Task(id, title, description, status,
-                LocalDateTime.parse(due, DateTimeFormatter.ofPattern(format)));
+                LocalDateTime.parse(due, DateTimeFormatter.ofPattern(format)), version, null);
     }
 
     /**
@@ -48,6 +49,7 @@ public class TaskDTO {
                 .description(task.getDescription())
                 .status(task.getStatus())
                 .due(task.getDue().format(DateTimeFormatter.ofPattern(format)))
+                .version(task.getVersion())
                 .build();
 
     }
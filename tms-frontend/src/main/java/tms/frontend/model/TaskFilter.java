@@ -0,0 +1,86 @@
+package tms.frontend.model;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Task list filter and sort chosen in the web interface.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskFilter {
+    /**
+     * Search terms, results are then ranked by relevance and the sort is ignored
+     */
+    private String text;
+    private List<Status> statuses;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+    private String sort;
+
+    /**
+     * Open tasks due in the week containing the given day, soonest first
+     *
+     * @param day any day of the week
+     * @return TaskFilter
+     */
+    public static TaskFilter openDueInWeekOf(LocalDate day) {
+        LocalDate monday = day.with(DayOfWeek.MONDAY);
+        return TaskFilter.builder()
+                .statuses(List.of(Status.NEW, Status.IN_PROGRESS))
+                .dueFrom(monday)
+                .dueTo(monday.plusDays(6))
+                .sort("due")
+                .build();
+    }
+
+    /**
+     * @return true if the filter searches titles and descriptions
+     */
+    public boolean isSearch() {
+        return text != null && !text.isBlank();
+    }
+
+    /**
+     * Query string suffix that carries this filter over to pagination links, every value is URL encoded
+     *
+     * @return query string parameters, each prefixed with '&amp;'
+     */
+    public String toQuery() {
+        StringJoiner joiner = new StringJoiner("");
+        if (isSearch()) {
+            add(joiner, "text", text);
+        }
+        if (statuses != null) {
+            statuses.forEach(status -> add(joiner, "statuses", status));
+        }
+        if (dueFrom != null) {
+            add(joiner, "dueFrom", dueFrom);
+        }
+        if (dueTo != null) {
+            add(joiner, "dueTo", dueTo);
+        }
+        if (sort != null && !sort.isBlank()) {
+            add(joiner, "sort", sort);
+        }
+        return joiner.toString();
+    }
+
+    private static void add(StringJoiner joiner, String name, Object value) {
+        joiner.add("&" + name + "=" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+    }
+}
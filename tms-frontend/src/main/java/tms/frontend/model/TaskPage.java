@@ -0,0 +1,21 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A single page of tasks as returned by the backend keyset pagination.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskPage {
+    private List<Task> items;
+    private String next;
+    private String prev;
+}
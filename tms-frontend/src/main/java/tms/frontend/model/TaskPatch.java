@@ -0,0 +1,27 @@
+package tms.frontend.model;
+
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial update of a task, null fields are left unchanged by the backend.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskPatch {
+    private String title;
+    private String description;
+    private Status status;
+    private LocalDateTime due;
+    /**
+     * Version the patch is based on, null to patch regardless of concurrent changes
+     */
+    private Long version;
+}
@@ -0,0 +1,40 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Task counts shown on the dashboard, computed by the backend.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskStats {
+    private LocalDate date;
+    private long total;
+    private Map<Status, Long> byStatus;
+    private long overdue;
+    private List<DayCount> dueByDay;
+    private Instant computedAt;
+
+    /**
+     * @return highest due count of a day, at least 1 so it can scale bars
+     */
+    public long getMaxDueCount() {
+        long max = 1;
+        if (dueByDay != null) {
+            for (DayCount day : dueByDay) {
+                max = Math.max(max, day.getCount());
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,21 @@
+package tms.frontend.model;
+
+import lombok.*;
+
+/**
+ * A task deleted since the last sync, as listed by the backend change feed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+@EqualsAndHashCode
+public class TaskTombstone {
+    private String id;
+    /**
+     * Change sequence number of the delete, a task recreated with the same id has a higher one
+     */
+    private Long seq;
+}
@@ -0,0 +1,141 @@
+package tms.frontend.service;
+
+import feign.Headers;
+import feign.Param;
+import feign.QueryMap;
+import feign.RequestLine;
+import tms.frontend.model.BatchOperation;
+import tms.frontend.model.BatchResult;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskChanges;
+import tms.frontend.model.TaskPage;
+import tms.frontend.model.TaskPatch;
+import tms.frontend.model.TaskStats;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST consumer for backend API, calls are non-blocking and return as soon as the request is sent.
+ */
+public interface AsyncTmBackend {
+
+    /**
+     * Get all tasks.
+     *
+     * @return all tasks
+     */
+    @RequestLine("GET /tasks")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<List<Task>> getAllTasks();
+
+    /**
+     * Get all tasks together with the change sequence number they are current as of.
+     *
+     * @return full TaskChanges
+     */
+    @RequestLine("GET /tasks/changes")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<TaskChanges> getAllTaskChanges();
+
+    /**
+     * Get the tasks written and deleted since a change sequence number, fails with 410 when it is too old.
+     *
+     * @param since sequence number of the previous changes
+     * @return TaskChanges
+     */
+    @RequestLine("GET /tasks/changes?since={since}")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<TaskChanges> getTaskChanges(@Param("since") long since);
+
+    /**
+     * Get a page of tasks.
+     *
+     * @param query cursor, limit, filter and sort parameters, see the backend API docs
+     * @return TaskPage
+     */
+    @RequestLine("GET /tasks/page")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<TaskPage> getTaskPage(@QueryMap Map<String, Object> query);
+
+    /**
+     * Search tasks by title and description, most relevant first.
+     *
+     * @param query search terms, cursor, limit and filter parameters, see the backend API docs
+     * @return TaskPage
+     */
+    @RequestLine("GET /tasks/search")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<TaskPage> searchTasks(@QueryMap Map<String, Object> query);
+
+    /**
+     * Get task counts per status, overdue and due per day.
+     *
+     * @return TaskStats
+     */
+    @RequestLine("GET /tasks/stats")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<TaskStats> getTaskStats();
+
+    /**
+     * Get a task by id.
+     *
+     * @param id task id
+     * @return Task
+     */
+    @RequestLine("GET /tasks/{id}")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<Task> getTask(@Param("id") String id);
+
+    /**
+     * Create a task.
+     *
+     * @param task Task entity
+     * @return created Task
+     */
+    @RequestLine("POST /tasks")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<Task> createTask(Task task);
+
+    /**
+     * Update a task.
+     *
+     * @param task Task entity
+     * @return update Task
+     */
+    @RequestLine("PUT /tasks")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<Task> updateTask(Task task);
+
+    /**
+     * Set only the fields present in the patch.
+     *
+     * @param id    task id
+     * @param patch fields to set
+     * @return patched Task
+     */
+    @RequestLine("PATCH /tasks/{id}")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<Task> patchTask(@Param("id") String id, TaskPatch patch);
+
+    /**
+     * Create, update and delete tasks in a single request.
+     *
+     * @param operations batch operations
+     * @return per item results
+     */
+    @RequestLine("POST /tasks:batch")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<BatchResult> batch(List<BatchOperation> operations);
+
+    /**
+     * Delete a task
+     *
+     * @param id task id
+     */
+    @RequestLine("DELETE /tasks/{id}")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<Void> deleteTask(@Param("id") String id);
+
+}
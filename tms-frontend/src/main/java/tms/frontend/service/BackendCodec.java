@@ -0,0 +1,112 @@
+package tms.frontend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+import tms.frontend.ApplicationProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Encodes and decodes backend bodies in the configured wire format, and asks the backend for it.
+ * Feign's Jackson codec goes through a Reader and a String so it only works for JSON, this one stays on bytes.
+ * Only some transports unzip responses themselves, so a body starting with the gzip magic number is unzipped here,
+ * which no JSON, Smile or CBOR document does.
+ */
+public class BackendCodec implements Encoder, Decoder, RequestInterceptor {
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    private final ObjectMapper mapper;
+
+    private final String mediaType;
+
+    private final boolean compression;
+
+    /**
+     * @param jsonMapper  JSON object mapper, the binary formats are mapped with a copy of its settings
+     * @param format      wire format
+     * @param compression ask for gzip responses
+     */
+    public BackendCodec(ObjectMapper jsonMapper, ApplicationProperties.WireFormat format, boolean compression) {
+        this.mapper = mapper(jsonMapper, format);
+        this.mediaType = format.getMediaType();
+        this.compression = compression;
+    }
+
+    /**
+     * Object mapper for a wire format
+     *
+     * @param jsonMapper JSON object mapper
+     * @param format     wire format
+     * @return mapper with the settings and modules of the JSON one
+     */
+    public static ObjectMapper mapper(ObjectMapper jsonMapper, ApplicationProperties.WireFormat format) {
+        return switch (format) {
+            case JSON -> jsonMapper;
+            case SMILE -> jsonMapper.copyWith(new SmileFactory());
+            case CBOR -> jsonMapper.copyWith(new CBORFactory());
+        };
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        template.removeHeader(HttpHeaders.ACCEPT);
+        template.header(HttpHeaders.ACCEPT, mediaType);
+        if (compression) {
+            template.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        try {
+            byte[] body = mapper.writerFor(mapper.constructType(bodyType)).writeValueAsBytes(object);
+            template.removeHeader(HttpHeaders.CONTENT_TYPE);
+            template.header(HttpHeaders.CONTENT_TYPE, mediaType);
+            template.body(body, null);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (response.status() == 404 || response.status() == 204) {
+            return Util.emptyValueOf(type);
+        }
+        if (response.body() == null) {
+            return null;
+        }
+        PushbackInputStream body = new PushbackInputStream(response.body().asInputStream(), 2);
+        int first = body.read();
+        if (first == -1) {
+            body.close();
+            return null;
+        }
+        int second = body.read();
+        if (second != -1) {
+            body.unread(second);
+        }
+        body.unread(first);
+        try (InputStream in = first == GZIP_MAGIC_FIRST && second == GZIP_MAGIC_SECOND
+                ? new GZIPInputStream(body) : body) {
+            return mapper.readValue(in, mapper.constructType(type));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import tms.frontend.ApplicationProperties;
+import tms.frontend.error.ServiceUnavailableException;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the HTTP transport used by Feign to call the backend.
+ * The JDK client keeps connections alive and reuses them across calls, with HTTP/2 every call is
+ * multiplexed over a single connection. Concurrent calls are bounded for both transports.
+ */
+public final class BackendTransport {
+
+    private BackendTransport() {
+    }
+
+    /**
+     * Create the configured transport
+     *
+     * @param properties backend client properties
+     * @param executor   executor completing calls, and running them for blocking transports
+     * @param registry   registry receiving the in flight and queued call gauges
+     * @return Feign async client
+     */
+    public static AsyncClient<Object> create(ApplicationProperties.BackendClient properties, ExecutorService executor,
+                                             MeterRegistry registry) {
+        AsyncClient<Object> client = switch (properties.getTransport()) {
+            case URL_CONNECTION -> new AsyncClient.Default<>(new Client.Default(null, null), executor);
+            case JDK_HTTP_CLIENT -> new Http2Client(httpClient(properties, executor));
+        };
+        BoundedClient bounded = new BoundedClient(client, properties.getMaxConnections(), properties.getMaxQueued(),
+                properties.getQueueTimeout());
+        Gauge.builder("tms.backend.client.in.flight", bounded, b -> b.inFlight(properties.getMaxConnections()))
+                .description("Backend calls in flight")
+                .register(registry);
+        Gauge.builder("tms.backend.client.queued", bounded, BoundedClient::queued)
+                .description("Backend calls waiting for a free connection")
+                .register(registry);
+        return bounded;
+    }
+
+    /**
+     * Request timeouts of the configured transport
+     *
+     * @param properties backend client properties
+     * @return Feign request options
+     */
+    public static Request.Options options(ApplicationProperties.BackendClient properties) {
+        return new Request.Options(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS, false);
+    }
+
+    private static HttpClient httpClient(ApplicationProperties.BackendClient properties, ExecutorService executor) {
+        // the JDK client exposes its pool only through system properties, read once when the first client is built
+        setDefault("jdk.httpclient.connectionPoolSize", String.valueOf(properties.getMaxConnections()));
+        setDefault("jdk.httpclient.keepalive.timeout", String.valueOf(properties.getKeepAlive().toSeconds()));
+        return HttpClient.newBuilder()
+                .version(properties.getHttpVersion())
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    /**
+     * Limits concurrent calls so a burst cannot open an unbounded number of connections,
+     * calls over the limit wait in a queue without holding a thread.
+     * The queue is bounded too, and a call that waits longer than the queue timeout fails, both with
+     * {@link ServiceUnavailableException} so a stalled backend sheds load instead of piling up calls.
+     */
+    static class BoundedClient implements AsyncClient<Object> {
+
+        private final AsyncClient<Object> delegate;
+
+        private final Semaphore permits;
+
+        private final Queue<Waiter> waiting = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final int maxQueued;
+
+        private final Duration queueTimeout;
+
+        BoundedClient(AsyncClient<Object> delegate, int maxConcurrent, int maxQueued, Duration queueTimeout) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(maxConcurrent);
+            this.maxQueued = maxQueued;
+            this.queueTimeout = queueTimeout;
+        }
+
+        @Override
+        public CompletableFuture<Response> execute(Request request, Request.Options options,
+                                                   Optional<Object> requestContext) {
+            CompletableFuture<Response> result = new CompletableFuture<>();
+            Runnable call = () -> start(request, options, requestContext, result);
+            // a call only skips the queue when nobody is waiting
+            if (waiting.isEmpty() && permits.tryAcquire()) {
+                call.run();
+                return result;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                result.completeExceptionally(new ServiceUnavailableException(
+                        "More than " + maxQueued + " backend calls are waiting for a connection"));
+                return result;
+            }
+            Waiter waiter = new Waiter(call);
+            waiting.add(waiter);
+            drain();
+            if (!waiter.isClaimed()) {
+                CompletableFuture.delayedExecutor(queueTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                    if (waiter.claim()) {
+                        waiting.remove(waiter);
+                        queued.decrementAndGet();
+                        result.completeExceptionally(new ServiceUnavailableException(
+                                "No backend connection became free within " + queueTimeout.toMillis() + "ms"));
+                    }
+                });
+            }
+            return result;
+        }
+
+        /**
+         * Calls in flight
+         */
+        int inFlight(int maxConcurrent) {
+            return maxConcurrent - permits.availablePermits();
+        }
+
+        /**
+         * Calls waiting for a permit
+         */
+        int queued() {
+            return queued.get();
+        }
+
+        private void start(Request request, Request.Options options, Optional<Object> requestContext,
+                           CompletableFuture<Response> result) {
+            CompletableFuture<Response> call;
+            try {
+                call = delegate.execute(request, options, requestContext);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((response, error) -> {
+                permits.release();
+                drain();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+        }
+
+        private void drain() {
+            // both new calls and finished calls drain, so a queued call is never left behind a free permit
+            while (!waiting.isEmpty() && permits.tryAcquire()) {
+                Waiter next = waiting.poll();
+                if (next == null || !next.claim()) {
+                    // the queue emptied meanwhile, or the call timed out and is about to leave it
+                    permits.release();
+                    if (next == null) {
+                        return;
+                    }
+                    continue;
+                }
+                queued.decrementAndGet();
+                next.call.run();
+            }
+        }
+    }
+
+    /**
+     * Queued call, started or timed out by whoever claims it first
+     */
+    private static final class Waiter {
+
+        private final Runnable call;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Waiter(Runnable call) {
+            this.call = call;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        boolean isClaimed() {
+            return claimed.get();
+        }
+    }
+
+}
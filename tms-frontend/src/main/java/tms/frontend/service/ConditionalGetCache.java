@@ -0,0 +1,149 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revalidating cache for GET calls to the backend.
+ * The last body and ETag are kept per URL, later calls send If-None-Match and a 304 is answered
+ * with the stored body. The decoded value is kept next to the body so an unchanged response is not
+ * decoded again, decoded values are shared between callers and must be treated as read only.
+ */
+public class ConditionalGetCache implements AsyncClient<Object>, Decoder {
+
+    private final AsyncClient<Object> client;
+    private final Decoder decoder;
+    private final Map<String, Entry> entries;
+    private final AtomicLong revalidations = new AtomicLong();
+
+    /**
+     * @param client     client doing the actual calls
+     * @param decoder    decoder used for changed bodies
+     * @param maxEntries max number of URLs remembered, least recently used ones are dropped
+     */
+    public ConditionalGetCache(AsyncClient<Object> client, Decoder decoder, int maxEntries) {
+        this.client = client;
+        this.decoder = decoder;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options,
+                                               Optional<Object> requestContext) {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return client.execute(request, options, requestContext);
+        }
+        Entry cached = entries.get(request.url());
+        Request conditional = cached == null ? request : withIfNoneMatch(request, cached.etag);
+        return client.execute(conditional, options, requestContext)
+                .thenApply(response -> remember(request, cached, response));
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        Entry entry = entries.get(response.request().url());
+        String etag = header(response, HttpHeaders.ETAG);
+        if (entry == null || etag == null || !etag.equals(entry.etag)) {
+            return decoder.decode(response, type);
+        }
+        Decoded decoded = entry.decoded;
+        if (decoded != null && decoded.type.equals(type)) {
+            return decoded.value;
+        }
+        Object value = decoder.decode(response, type);
+        entry.decoded = new Decoded(type, value);
+        return value;
+    }
+
+    /**
+     * Number of calls answered with 304 by the backend
+     *
+     * @return revalidation count
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    private Response remember(Request request, Entry cached, Response response) {
+        if (cached != null && response.status() == 304) {
+            response.close();
+            revalidations.incrementAndGet();
+            return Response.builder()
+                    .status(200)
+                    .reason("OK")
+                    .request(request)
+                    .headers(cached.headers)
+                    .body(cached.body)
+                    .build();
+        }
+        String etag = header(response, HttpHeaders.ETAG);
+        if (response.status() != 200 || etag == null || response.body() == null) {
+            entries.remove(request.url());
+            return response;
+        }
+        byte[] body;
+        try (response) {
+            body = Util.toByteArray(response.body().asInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entries.put(request.url(), new Entry(etag, response.headers(), body));
+        return response.toBuilder().body(body).build();
+    }
+
+    private static Request withIfNoneMatch(Request request, String etag) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(HttpHeaders.IF_NONE_MATCH, List.of(etag));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                request.charset(), request.requestTemplate());
+    }
+
+    private static String header(Response response, String name) {
+        Collection<String> values = response.headers().get(name);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private static final class Entry {
+        private final String etag;
+        private final Map<String, Collection<String>> headers;
+        private final byte[] body;
+        private volatile Decoded decoded;
+
+        private Entry(String etag, Map<String, Collection<String>> headers, byte[] body) {
+            this.etag = etag;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private static final class Decoded {
+        private final Type type;
+        private final Object value;
+
+        private Decoded(Type type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package tms.frontend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, other callers asking for
+ * the same key get its future and share its result or exception instead of issuing their own call.
+ * Each call records the generation current when it started, so a caller that joined it can tell whether
+ * its result predates a change it already knows about.
+ *
+ * @param <K> call key
+ * @param <V> call result
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final LongSupplier generation;
+
+    /**
+     * Coalesce calls without tracking generations
+     */
+    public SingleFlight() {
+        this(() -> 0);
+    }
+
+    /**
+     * @param generation read before every call starts, it must only grow
+     */
+    public SingleFlight(LongSupplier generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Start the call for a key, or join the one already in flight
+     *
+     * @param key  call key
+     * @param call call to start when none is in flight
+     * @return call result
+     */
+    public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+        return join(key, call).result();
+    }
+
+    /**
+     * Start the call for a key, or join the one already in flight, with the generation it started in
+     *
+     * @param key  call key
+     * @param call call to start when none is in flight
+     * @return call result and start generation
+     */
+    public Flight<V> join(K key, Function<K, CompletableFuture<V>> call) {
+        // read before the call starts, a change made in between makes the result look older than it is, never newer
+        Flight<V> created = new Flight<>(new CompletableFuture<>(), generation.getAsLong());
+        Flight<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            collapsed.incrementAndGet();
+            return existing;
+        }
+        calls.incrementAndGet();
+        CompletableFuture<V> started;
+        try {
+            started = call.apply(key);
+        } catch (RuntimeException | Error e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            // leave before completing so callers arriving after the result start a fresh call
+            inFlight.remove(key, created);
+            if (error != null) {
+                created.result().completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                created.result().complete(value);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Number of calls actually executed
+     *
+     * @return call count
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * Number of callers that joined a call already in flight
+     *
+     * @return collapsed call count
+     */
+    public long getCollapsed() {
+        return collapsed.get();
+    }
+
+    /**
+     * A call in flight
+     *
+     * @param result     shared call result
+     * @param generation generation read before the call started
+     * @param <V>        call result
+     */
+    public record Flight<V>(CompletableFuture<V> result, long generation) {
+    }
+}
@@ -0,0 +1,62 @@
+package tms.frontend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tms.common.service.SseBroadcaster;
+import tms.frontend.ApplicationProperties;
+
+/**
+ * Fans the backend task events out to the browsers showing the task list, as Server-Sent Events,
+ * through a {@link SseBroadcaster} so a slow browser never delays the others.
+ */
+@Service
+public class TaskEventBus {
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private SseBroadcaster broadcaster;
+
+    @PostConstruct
+    private void init() {
+        ApplicationProperties.Events events = applicationProperties.getEvents();
+        broadcaster = new SseBroadcaster(events.getBufferSize(), events.getHeartbeatInterval(), events.getTimeout(),
+                "{\"type\":\"RESET\"}");
+    }
+
+    /**
+     * Open a stream of task events for a browser
+     *
+     * @param lastEventId id of the last event a reconnecting browser received, null for a new page
+     * @return emitter completing when the browser goes away, the stream times out or the browser falls behind
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+
+    /**
+     * Push an event to all browsers, events are forwarded with their backend ids
+     *
+     * @param name event name, the task event type
+     * @param id   event id, null if the event has none
+     * @param data event data as received from the backend
+     */
+    public void publish(String name, String id, String data) {
+        broadcaster.publish(name, id, data);
+    }
+
+    /**
+     * @return number of connected browsers
+     */
+    public int getSubscribers() {
+        return broadcaster.getSubscribers();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        broadcaster.close();
+    }
+}
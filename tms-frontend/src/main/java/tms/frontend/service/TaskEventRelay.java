@@ -0,0 +1,213 @@
+package tms.frontend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tms.frontend.ApplicationProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Follows the backend task event stream with one long lived connection.
+ * Every event drops the cached data it makes stale, so pages are fresh right after other clients' writes
+ * instead of after the cache TTL, and is then forwarded to the browsers by {@link TaskEventBus}.
+ * A lost connection is retried with a growing delay, the backend answers a reconnect that missed
+ * events with a RESET which clears the caches. A stream silent for longer than the idle timeout,
+ * backend heartbeats included, is closed and reconnected, a half closed connection would otherwise never end.
+ */
+@Slf4j
+@Service
+public class TaskEventRelay {
+
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofMinutes(1);
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskEventBus eventBus;
+
+    private HttpClient client;
+
+    private Thread reader;
+
+    /**
+     * Closes streams that went idle, a blocked read does not time out by itself
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tms-events-relay-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    private String lastEventId;
+
+    private volatile long lastReadAt;
+
+    private volatile boolean idle;
+
+    @PostConstruct
+    private void init() {
+        client = HttpClient.newBuilder()
+                .connectTimeout(applicationProperties.getBackendClient().getConnectTimeout())
+                .build();
+        reader = new Thread(this::run, "tms-events-relay");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        running = false;
+        reader.interrupt();
+        watchdog.shutdownNow();
+    }
+
+    private void run() {
+        Duration initialDelay = applicationProperties.getEvents().getReconnectDelay();
+        Duration delay = initialDelay;
+        while (running) {
+            try {
+                if (follow()) {
+                    delay = initialDelay;
+                }
+            } catch (IOException e) {
+                log.warn("Task event stream failed: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = delay.multipliedBy(2).compareTo(MAX_RECONNECT_DELAY) > 0
+                    ? MAX_RECONNECT_DELAY
+                    : delay.multipliedBy(2);
+        }
+    }
+
+    /**
+     * Read the stream until the backend closes it or it goes idle
+     *
+     * @return true if the stream was opened
+     */
+    private boolean follow() throws IOException, InterruptedException {
+        Duration idleTimeout = applicationProperties.getEvents().getIdleTimeout();
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(applicationProperties.getTmsBackendApiAddress() + "/tasks/events"))
+                .header("Accept", "text/event-stream")
+                // only bounds the wait for the response headers, the watchdog covers the body
+                .timeout(idleTimeout)
+                .GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != 200) {
+                log.warn("Task event stream answered {}", response.statusCode());
+                return false;
+            }
+            log.info("Following backend task events");
+            // events may have been missed while disconnected
+            taskService.onBackendChange(null);
+            lastReadAt = System.nanoTime();
+            idle = false;
+            long period = Math.max(idleTimeout.toMillis() / 3, 1);
+            ScheduledFuture<?> check = watchdog.scheduleWithFixedDelay(() -> {
+                if (System.nanoTime() - lastReadAt >= idleTimeout.toNanos()) {
+                    idle = true;
+                    // cancels the exchange, the blocked read fails and the stream is reconnected
+                    lines.close();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+            try {
+                String name = null;
+                String id = null;
+                StringBuilder data = new StringBuilder();
+                Iterator<String> iterator = lines.iterator();
+                while (running && iterator.hasNext()) {
+                    String line = iterator.next();
+                    lastReadAt = System.nanoTime();
+                    if (line.isEmpty()) {
+                        if (!data.isEmpty()) {
+                            dispatch(name, id, data.toString());
+                        }
+                        name = null;
+                        id = null;
+                        data.setLength(0);
+                    } else if (line.startsWith("event:")) {
+                        name = value(line);
+                    } else if (line.startsWith("id:")) {
+                        id = value(line);
+                    } else if (line.startsWith("data:")) {
+                        if (!data.isEmpty()) {
+                            data.append('\n');
+                        }
+                        data.append(value(line));
+                    }
+                    // comments are heartbeats and carry nothing
+                }
+            } catch (UncheckedIOException e) {
+                if (!idle) {
+                    throw e.getCause();
+                }
+            } finally {
+                check.cancel(false);
+            }
+            if (idle) {
+                log.warn("Task event stream idle for {}, reconnecting", idleTimeout);
+            }
+            return true;
+        }
+    }
+
+    private void dispatch(String name, String id, String data) {
+        if (id != null) {
+            lastEventId = id;
+        }
+        String taskId = null;
+        try {
+            JsonNode event = mapper.readTree(data);
+            taskId = event.path("id").isTextual() ? event.get("id").asText() : null;
+        } catch (IOException e) {
+            log.warn("Unreadable task event {}: {}", id, e.getMessage());
+        }
+        taskService.onBackendChange(taskId);
+        eventBus.publish(name == null ? "message" : name, id, data);
+    }
+
+    private static String value(String line) {
+        int colon = line.indexOf(':');
+        // a single space after the colon is part of the syntax, not the value
+        return line.startsWith(" ", colon + 1) ? line.substring(colon + 2) : line.substring(colon + 1);
+    }
+}
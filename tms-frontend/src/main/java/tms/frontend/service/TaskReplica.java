@@ -0,0 +1,140 @@
+package tms.frontend.service;
+
+import feign.FeignException;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskChanges;
+import tms.frontend.model.TaskTombstone;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In memory copy of all tasks, kept current with the backend change feed.
+ * The first sync fetches all tasks, later syncs only fetch the tasks written and deleted since the
+ * sequence number of the previous one. A sequence number the backend no longer has changes for,
+ * because the deletes were pruned or the backend database was replaced, falls back to a full sync.
+ * The copy is served without asking the backend until it is marked stale or older than the max age.
+ * Returned lists and tasks are shared and must not be modified.
+ */
+public class TaskReplica {
+
+    private final AsyncTmBackend backend;
+
+    // guarded by this
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private long seq = -1;
+
+    private volatile List<Task> snapshot;
+    private volatile long syncedAt;
+
+    /**
+     * Bumped when the backend reports a change, a sync that started before it leaves the copy stale
+     */
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long syncedChanges = -1;
+
+    private final AtomicLong fullSyncs = new AtomicLong();
+
+    /**
+     * @param backend backend serving the change feed
+     */
+    public TaskReplica(AsyncTmBackend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * All tasks, if the copy is current
+     *
+     * @param maxAge how long a copy without reported changes is served
+     * @return tasks in backend order, null if the copy has to be synced first
+     */
+    public List<Task> current(Duration maxAge) {
+        List<Task> current = snapshot;
+        if (current == null || syncedChanges != changes.get() || System.nanoTime() - syncedAt > maxAge.toNanos()) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * A task of the copy, if the copy is current
+     *
+     * @param id     task id
+     * @param maxAge how long a copy without reported changes is served
+     * @return task, null if the copy is not current or does not hold the task
+     */
+    public synchronized Task find(String id, Duration maxAge) {
+        return current(maxAge) == null ? null : tasks.get(id);
+    }
+
+    /**
+     * Mark the copy stale, the next read syncs with the backend
+     */
+    public void markChanged() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Apply the changes made since the last sync, callers should coalesce concurrent syncs
+     *
+     * @return all tasks after the sync
+     */
+    public CompletableFuture<List<Task>> sync() {
+        long generation = changes.get();
+        long since;
+        synchronized (this) {
+            since = seq;
+        }
+        CompletableFuture<TaskChanges> call = since < 0 ? fullSync() : backend.getTaskChanges(since)
+                .exceptionallyCompose(e -> isGone(e) ? fullSync() : CompletableFuture.failedFuture(e));
+        return call.thenApply(changes -> apply(changes, generation));
+    }
+
+    /**
+     * Number of syncs that fetched all tasks
+     *
+     * @return full sync count
+     */
+    public long getFullSyncs() {
+        return fullSyncs.get();
+    }
+
+    private CompletableFuture<TaskChanges> fullSync() {
+        fullSyncs.incrementAndGet();
+        return backend.getAllTaskChanges();
+    }
+
+    private synchronized List<Task> apply(TaskChanges changes, long generation) {
+        if (changes.isFull()) {
+            tasks.clear();
+        } else if (changes.getSeq() < seq) {
+            // a slower sync finished after a newer one, its changes are already in
+            return snapshot;
+        }
+        for (Task task : changes.getTasks()) {
+            tasks.put(task.getId(), task);
+        }
+        for (TaskTombstone tombstone : changes.getDeleted()) {
+            Task task = tasks.get(tombstone.getId());
+            // a task recreated after the delete is newer than its tombstone
+            if (task != null && (task.getSeq() == null || task.getSeq() < tombstone.getSeq())) {
+                tasks.remove(tombstone.getId());
+            }
+        }
+        seq = changes.getSeq();
+        snapshot = List.copyOf(tasks.values());
+        syncedAt = System.nanoTime();
+        syncedChanges = generation;
+        return snapshot;
+    }
+
+    private static boolean isGone(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof FeignException.Gone;
+    }
+}
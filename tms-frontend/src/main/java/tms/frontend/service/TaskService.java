@@ -1,38 +1,178 @@
 package tms.frontend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import feign.Feign;
-import feign.jackson.JacksonDecoder;
-import feign.jackson.JacksonEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.stereotype.Service;
 import tms.frontend.ApplicationProperties;
+import tms.frontend.model.BatchOperation;
+import tms.frontend.model.BatchResult;
 import tms.frontend.model.Task;
+import tms.frontend.model.TaskFilter;
+import tms.frontend.model.TaskPage;
+import tms.frontend.model.TaskPatch;
+import tms.frontend.model.TaskStats;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Task service responsible for calling the backend.
+ * Tasks and pages are cached in process for a short time and invalidated by writes made through this
+ * service and by the backend task events, once expired they are revalidated with ETags.
+ * All tasks are served from a replica kept current with the backend change feed, which also answers
+ * single task reads while it is current.
+ * Concurrent identical reads that miss the cache share a single backend call.
+ * Calls are non-blocking and complete on backend executor threads.
+ * Returned tasks are shared and must not be modified.
  */
 @Service
 public class TaskService {
 
+    /**
+     * Task fields shown in the task list
+     */
+    private static final List<String> LIST_FIELDS = List.of("title", "description", "status", "due");
+
     @Autowired
     private ApplicationProperties applicationProperties;
 
     @Autowired
     private ObjectMapper mapper;
 
-    private TmBackend backend;
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<Tracer> tracer;
+
+    @Autowired
+    private ObjectProvider<Propagator> propagator;
+
+    private AsyncTmBackend backend;
+
+    private Cache<String, Task> taskCache;
+
+    private Cache<Map<String, Object>, TaskPage> pageCache;
+
+    private TaskReplica replica;
+
+    /**
+     * Bumped by every write, a read that raced with a write does not populate the caches
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final SingleFlight<String, Task> taskFlights = new SingleFlight<>(invalidations::get);
+
+    private final SingleFlight<Map<String, Object>, TaskPage> pageFlights = new SingleFlight<>(invalidations::get);
+
+    private final SingleFlight<String, List<Task>> allTasksFlights = new SingleFlight<>();
+
+    private final SingleFlight<String, TaskStats> statsFlights = new SingleFlight<>();
 
     /**
-     * Get all tasks
+     * Runs blocking transports and completes backend calls, request threads are never used for backend I/O.
+     * Uses virtual threads when spring.threads.virtual.enabled is set.
+     */
+    private ExecutorService backendExecutor;
+
+    /**
+     * Get all tasks, only the changes since the last call are fetched from the backend
      *
      * @return list of tasks
      */
-    public List<Task> getAllTasks() {
-        return backend.getAllTasks();
+    public CompletableFuture<List<Task>> getAllTasks() {
+        List<Task> current = replica.current(applicationProperties.getTaskCacheTtl());
+        if (current != null) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return allTasksFlights.execute("all", key -> replica.sync());
+    }
+
+    /**
+     * Get the dashboard counts, unchanged counts are revalidated with the backend rather than sent again
+     *
+     * @return task statistics
+     */
+    public CompletableFuture<TaskStats> getTaskStats() {
+        return statsFlights.execute("stats", key -> backend.getTaskStats());
+    }
+
+    /**
+     * Get a page of filtered tasks using the configured page size.
+     * A filter with search text goes to the backend text search and pages through relevance ranked results.
+     *
+     * @param filter filter and sort, may be null
+     * @param after  cursor of the last task on the previous page
+     * @param before cursor of the first task on the next page
+     * @return page of tasks
+     */
+    public CompletableFuture<TaskPage> getTaskPage(TaskFilter filter, String after, String before) {
+        boolean search = filter != null && filter.isSearch();
+        Map<String, Object> query = new LinkedHashMap<>();
+        query.put("limit", applicationProperties.getTaskPageSize());
+        // the list never shows the version and only the start of long descriptions
+        query.put("fields", LIST_FIELDS);
+        query.put("descriptionLength", applicationProperties.getTaskListDescriptionLength());
+        if (search) {
+            query.put("q", filter.getText().strip());
+            // search cursors hold an offset and work in both directions
+            String cursor = after != null ? after : before;
+            if (cursor != null) {
+                query.put("cursor", cursor);
+            }
+        } else {
+            if (after != null) {
+                query.put("after", after);
+            }
+            if (before != null) {
+                query.put("before", before);
+            }
+        }
+        if (filter != null) {
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                query.put("status", filter.getStatuses());
+            }
+            if (filter.getDueFrom() != null) {
+                query.put("dueAfter", filter.getDueFrom().atStartOfDay());
+            }
+            if (filter.getDueTo() != null) {
+                query.put("dueBefore", filter.getDueTo().plusDays(1).atStartOfDay());
+            }
+            if (!search && filter.getSort() != null && !filter.getSort().isBlank()) {
+                query.put("sort", filter.getSort());
+            }
+        }
+        Function<Map<String, Object>, CompletableFuture<TaskPage>> call =
+                search ? backend::searchTasks : backend::getTaskPage;
+        return readThrough(pageCache, pageFlights, Map.copyOf(query), call);
     }
 
     /**
@@ -41,8 +181,13 @@ public class TaskService {
      * @param task Task
      * @return created task
      */
-    public Task createTask(Task task) {
-        return backend.createTask(task);
+    public CompletableFuture<Task> createTask(Task task) {
+        return backend.createTask(task).thenApply(created -> {
+            invalidations.incrementAndGet();
+            replica.markChanged();
+            pageCache.invalidateAll();
+            return created;
+        });
     }
 
     /**
@@ -51,17 +196,62 @@ public class TaskService {
      * @param task Task
      * @return updated task
      */
-    public Task updateTask(Task task) {
-        return backend.updateTask(task);
+    public CompletableFuture<Task> updateTask(Task task) {
+        return backend.updateTask(task).thenApply(updated -> {
+            invalidations.incrementAndGet();
+            replica.markChanged();
+            taskCache.invalidate(task.getId());
+            pageCache.invalidateAll();
+            return updated;
+        });
+    }
+
+    /**
+     * Update some fields of a task with one small backend write
+     *
+     * @param id    task id
+     * @param patch fields to set
+     * @return patched task
+     */
+    public CompletableFuture<Task> patchTask(String id, TaskPatch patch) {
+        return backend.patchTask(id, patch).thenApply(patched -> {
+            invalidations.incrementAndGet();
+            replica.markChanged();
+            taskCache.invalidate(id);
+            pageCache.invalidateAll();
+            return patched;
+        });
+    }
+
+    /**
+     * Create, update and delete tasks in a single backend call
+     *
+     * @param operations batch operations
+     * @return per item results
+     */
+    public CompletableFuture<BatchResult> batch(List<BatchOperation> operations) {
+        return backend.batch(operations).thenApply(result -> {
+            invalidations.incrementAndGet();
+            replica.markChanged();
+            taskCache.invalidateAll();
+            pageCache.invalidateAll();
+            return result;
+        });
     }
 
     /**
      * Delete a task
      *
      * @param id task id
+     * @return completion of the delete
      */
-    public void deleteTask(String id) {
-        backend.deleteTask(id);
+    public CompletableFuture<Void> deleteTask(String id) {
+        return backend.deleteTask(id).thenRun(() -> {
+            invalidations.incrementAndGet();
+            replica.markChanged();
+            taskCache.invalidate(id);
+            pageCache.invalidateAll();
+        });
     }
 
     /**
@@ -70,16 +260,137 @@ public class TaskService {
      * @param id task id
      * @return Task
      */
-    public Task getTask(String id) {
-        return backend.getTask(id);
+    public CompletableFuture<Task> getTask(String id) {
+        Task replicated = replica.find(id, applicationProperties.getTaskCacheTtl());
+        if (replicated != null) {
+            return CompletableFuture.completedFuture(replicated);
+        }
+        return readThrough(taskCache, taskFlights, id, backend::getTask);
+    }
+
+    /**
+     * Drop cached data made stale by a write another client made through the backend
+     *
+     * @param id changed task id, null when the backend cannot tell which tasks changed
+     */
+    public void onBackendChange(String id) {
+        invalidations.incrementAndGet();
+        replica.markChanged();
+        if (id == null) {
+            taskCache.invalidateAll();
+        } else {
+            taskCache.invalidate(id);
+        }
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * Hit, miss and eviction counters of the single task cache
+     *
+     * @return CacheStats
+     */
+    public CacheStats getTaskCacheStats() {
+        return taskCache.stats();
+    }
+
+    /**
+     * Hit, miss and eviction counters of the task page cache
+     *
+     * @return CacheStats
+     */
+    public CacheStats getPageCacheStats() {
+        return pageCache.stats();
+    }
+
+    /**
+     * Number of backend reads saved by joining an identical read already in flight
+     *
+     * @return collapsed call count
+     */
+    public long getCollapsedCalls() {
+        return taskFlights.getCollapsed() + pageFlights.getCollapsed() + allTasksFlights.getCollapsed()
+                + statsFlights.getCollapsed();
+    }
+
+    /**
+     * Number of backend reads issued after coalescing
+     *
+     * @return backend call count
+     */
+    public long getBackendReads() {
+        return taskFlights.getCalls() + pageFlights.getCalls() + allTasksFlights.getCalls() + statsFlights.getCalls();
+    }
+
+    private <K, V> CompletableFuture<V> readThrough(Cache<K, V> cache, SingleFlight<K, V> flights, K key,
+                                                    Function<K, CompletableFuture<V>> call) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        // the backend call runs outside the cache so a slow call never blocks other keys,
+        // a joined call may have started before a write this caller already saw, so its start generation counts
+        SingleFlight.Flight<V> flight = flights.join(key, call);
+        return flight.result().thenApply(value -> {
+            if (invalidations.get() == flight.generation()) {
+                cache.put(key, value);
+            }
+            return value;
+        });
     }
 
     @PostConstruct
+    private void init() {
+        initCaches();
+        initRestConsumer();
+    }
+
+    private void initCaches() {
+        taskCache = Caffeine.newBuilder()
+                .maximumSize(applicationProperties.getTaskCacheMaxSize())
+                .expireAfterWrite(applicationProperties.getTaskCacheTtl())
+                .recordStats()
+                .build();
+        pageCache = Caffeine.newBuilder()
+                .maximumSize(applicationProperties.getTaskCacheMaxSize())
+                .expireAfterWrite(applicationProperties.getTaskCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, taskCache, "tasks");
+        CaffeineCacheMetrics.monitor(meterRegistry, pageCache, "taskPages");
+    }
+
     private void initRestConsumer() {
-        backend = Feign.builder()
-                .decoder(new JacksonDecoder(mapper))
-                .encoder(new JacksonEncoder(mapper))
-                .target(TmBackend.class, applicationProperties.getTmsBackendApiAddress());
+        ApplicationProperties.BackendClient clientProperties = applicationProperties.getBackendClient();
+        backendExecutor = Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadPerTask()
+                : Executors.newCachedThreadPool();
+        // timed inside the conditional cache so revalidations are seen with their real 304 status
+        AsyncClient<Object> transport = BackendTransport.create(clientProperties, backendExecutor, meterRegistry);
+        BackendCodec codec = new BackendCodec(mapper, clientProperties.getFormat(), clientProperties.getCompression());
+        ConditionalGetCache conditionalGetCache = new ConditionalGetCache(new TimedClient(transport, meterRegistry),
+                codec, applicationProperties.getConditionalCacheSize());
+        AsyncFeign.AsyncBuilder<Object> builder = AsyncFeign.<Object>builder().requestInterceptor(codec);
+        if (tracer.getIfAvailable() != null && propagator.getIfAvailable() != null) {
+            builder.requestInterceptor(new TracePropagation(tracer.getObject(), propagator.getObject()));
+        }
+        backend = builder
+                .client(conditionalGetCache)
+                .decoder(conditionalGetCache)
+                .options(BackendTransport.options(clientProperties))
+                .encoder(codec)
+                .target(AsyncTmBackend.class, applicationProperties.getTmsBackendApiAddress());
+        replica = new TaskReplica(backend);
+    }
+
+    private static ExecutorService virtualThreadPerTask() {
+        // no idle threads are kept, every task gets a fresh virtual thread
+        ThreadFactory factory = new VirtualThreadTaskExecutor("tms-backend-").getVirtualThreadFactory();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        backendExecutor.shutdown();
     }
 
 }
@@ -0,0 +1,93 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Times every backend call per API method and outcome, so slow or failing backend calls can be told
+ * apart from time spent in the frontend itself.
+ */
+public class TimedClient implements AsyncClient<Object> {
+
+    /**
+     * Timer name of backend calls
+     */
+    public static final String METRIC = "tms.backend.client.requests";
+
+    private final AsyncClient<Object> delegate;
+
+    private final MeterRegistry registry;
+
+    /**
+     * @param delegate client doing the actual calls
+     * @param registry registry receiving the timers
+     */
+    public TimedClient(AsyncClient<Object> delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options,
+                                               Optional<Object> requestContext) {
+        Timer.Sample sample = Timer.start(registry);
+        CompletableFuture<Response> call;
+        try {
+            call = delegate.execute(request, options, requestContext);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((response, error) -> sample.stop(Timer.builder(METRIC)
+                .description("Calls from the frontend to the backend API")
+                .tag("method", method(request))
+                .tag("status", error != null ? "none" : String.valueOf(response.status()))
+                .tag("outcome", outcome(response, error))
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    private static String method(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().methodMetadata() == null) {
+            return request.httpMethod().name();
+        }
+        return request.requestTemplate().methodMetadata().configKey();
+    }
+
+    private static String outcome(Response response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException) {
+                return "TIMEOUT";
+            }
+            return cause instanceof IOException ? "IO_ERROR" : "ERROR";
+        }
+        int status = response.status();
+        if (status == 304) {
+            return "NOT_MODIFIED";
+        }
+        if (status == 404) {
+            return "NOT_FOUND";
+        }
+        if (status == 409) {
+            return "CONFLICT";
+        }
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+}
@@ -0,0 +1,36 @@
+package tms.frontend.service;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+
+/**
+ * Adds the W3C traceparent of the current span to backend calls, so backend spans join the trace
+ * of the page request that caused them.
+ * Feign applies interceptors on the calling thread, calls made from completion callbacks carry no trace.
+ */
+public class TracePropagation implements RequestInterceptor {
+
+    private final Tracer tracer;
+
+    private final Propagator propagator;
+
+    /**
+     * @param tracer     tracer
+     * @param propagator propagator writing the trace headers
+     */
+    public TracePropagation(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context != null) {
+            propagator.inject(context, template, (carrier, key, value) -> carrier.header(key, value));
+        }
+    }
+}
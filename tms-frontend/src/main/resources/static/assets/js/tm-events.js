@@ -0,0 +1,50 @@
+    // Keeps the task list in step with changes made elsewhere, using the events relayed by /task-events.
+    // Updated rows are patched in place, deleted rows are removed, anything the page cannot place
+    // (a created task, or events missed while disconnected) only offers a reload.
+    function truncate(text, length) {
+        var chars = Array.from(text || '');
+        return chars.length > length ? chars.slice(0, length).join('') + '…' : chars.join('');
+    }
+
+    function formatDue(due) {
+        var parts = /^(\d{4})-(\d{2})-(\d{2})T(\d{2}):(\d{2})/.exec(due || '');
+        return parts ? parts[3] + '-' + parts[2] + '-' + parts[1] + ' ' + parts[4] + ':' + parts[5] : '';
+    }
+
+    function showReloadNotice() {
+        $('#taskEventsNotice').removeClass('d-none');
+    }
+
+    function followTaskEvents() {
+        var table = $('#taskTable');
+        if (!table.length || !window.EventSource) {
+            return;
+        }
+        var descriptionLength = parseInt(table.data('description-length'), 10);
+        var events = new EventSource(table.data('events'));
+        events.addEventListener('UPDATED', function (message) {
+            var task = JSON.parse(message.data).task;
+            var row = table.find('tr[data-task-id="' + task.id + '"]');
+            if (!row.length) {
+                return;
+            }
+            row.find('.task-title').text(task.title || '');
+            row.find('.task-description').text(truncate(task.description, descriptionLength));
+            row.find('.task-status select').val(task.status);
+            row.find('.task-due').text(formatDue(task.due));
+            row.addClass('table-info');
+            setTimeout(function () {
+                row.removeClass('table-info');
+            }, 2000);
+        });
+        events.addEventListener('DELETED', function (message) {
+            var id = JSON.parse(message.data).id;
+            table.find('tr[data-task-id="' + id + '"]').fadeOut(500, function () {
+                $(this).remove();
+            });
+        });
+        events.addEventListener('CREATED', showReloadNotice);
+        events.addEventListener('RESET', showReloadNotice);
+    }
+
+    $(followTaskEvents);
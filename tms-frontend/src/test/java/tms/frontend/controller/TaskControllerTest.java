@@ -5,23 +5,39 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tms.frontend.ApplicationProperties;
+import tms.frontend.model.DayCount;
 import tms.frontend.model.Status;
 import tms.frontend.model.Task;
 import tms.frontend.model.TaskDTO;
+import tms.frontend.model.TaskFilter;
+import tms.frontend.model.TaskPage;
+import tms.frontend.model.TaskPatch;
+import tms.frontend.model.TaskStats;
+import tms.frontend.service.TaskEventBus;
 import tms.frontend.service.TaskService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.core.StringContains.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import(ApplicationProperties.class)
 public class TaskControllerTest {
 
     @Autowired
@@ -30,13 +46,54 @@ public class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskEventBus eventBus;
+
 
     @Test
     void getAllTasks() throws Exception {
-        when(taskService.getAllTasks()).thenReturn(new ArrayList<>());
-        mockMvc.perform(get("/task-list"))
+        when(taskService.getTaskPage(new TaskFilter(), null, null)).thenReturn(page(null, null));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/task-list")).andReturn()))
                 .andExpect(status().isOk());
-        verify(taskService).getAllTasks();
+        verify(taskService).getTaskPage(new TaskFilter(), null, null);
+    }
+
+    @Test
+    void getTaskPage() throws Exception {
+        when(taskService.getTaskPage(new TaskFilter(), "abc", null)).thenReturn(page("def", "abc"));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/task-list?after=abc")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/task-list?after=def")))
+                .andExpect(content().string(containsString("/task-list?before=abc")));
+        verify(taskService).getTaskPage(new TaskFilter(), "abc", null);
+    }
+
+    @Test
+    void getFilteredTasks() throws Exception {
+        TaskFilter filter = TaskFilter.builder()
+                .statuses(List.of(Status.NEW, Status.IN_PROGRESS))
+                .dueFrom(LocalDate.of(2025, 7, 21))
+                .dueTo(LocalDate.of(2025, 7, 27))
+                .sort("due")
+                .build();
+        when(taskService.getTaskPage(filter, null, null)).thenReturn(page("def", null));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(
+                        get("/task-list?statuses=NEW&statuses=IN_PROGRESS&dueFrom=2025-07-21&dueTo=2025-07-27&sort=due"))
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "/task-list?after=def&amp;statuses=NEW&amp;statuses=IN_PROGRESS&amp;dueFrom=2025-07-21")));
+        verify(taskService).getTaskPage(filter, null, null);
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+        TaskFilter filter = TaskFilter.builder().text("budget review").build();
+        when(taskService.getTaskPage(filter, null, null)).thenReturn(page("def", null));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/task-list?text=budget+review")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/task-list?after=def&amp;text=budget+review")));
+        verify(taskService).getTaskPage(filter, null, null);
     }
 
     @Test
@@ -54,8 +111,8 @@ public class TaskControllerTest {
                 .status(Status.NEW)
                 .due(LocalDateTime.now())
                 .build();
-        when(taskService.getTask("1")).thenReturn(task);
-        mockMvc.perform(get("/edit-task/1"))
+        when(taskService.getTask("1")).thenReturn(CompletableFuture.completedFuture(task));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/edit-task/1")).andReturn()))
                 .andExpect(status().isOk());
         verify(taskService).getTask("1");
     }
@@ -69,16 +126,17 @@ public class TaskControllerTest {
                 .status(Status.NEW)
                 .due(LocalDateTime.now())
                 .build();
-        when(taskService.getTask("1")).thenReturn(task);
-        mockMvc.perform(get("/task-details/1"))
+        when(taskService.getTask("1")).thenReturn(CompletableFuture.completedFuture(task));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/task-details/1")).andReturn()))
                 .andExpect(status().isOk());
         verify(taskService).getTask("1");
     }
 
     @Test
     void deleteTask() throws Exception {
-        doNothing().when(taskService).deleteTask("1");
-        mockMvc.perform(get("/delete-task/1"))
+        when(taskService.deleteTask("1")).thenReturn(CompletableFuture.completedFuture(null));
+        when(taskService.getTaskPage(new TaskFilter(), null, null)).thenReturn(page(null, null));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/delete-task/1")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("Operation completed successfully")));
         verify(taskService).deleteTask("1");
@@ -86,25 +144,27 @@ public class TaskControllerTest {
 
     @Test
     void editTaskNotFound() throws Exception {
-        doThrow(FeignException.NotFound.class).when(taskService).getTask("1");
-        mockMvc.perform(get("/edit-task/1"))
+        when(taskService.getTask("1")).thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/edit-task/1")).andReturn()))
                 .andExpect(status().isNotFound());
         verify(taskService).getTask("1");
     }
 
     @Test
     void deleteTaskNotFound() throws Exception {
-        doThrow(FeignException.NotFound.class).when(taskService).deleteTask("1");
-        mockMvc.perform(get("/delete-task/1"))
+        when(taskService.deleteTask("1")).thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/delete-task/1")).andReturn()))
                 .andExpect(status().isNotFound());
         verify(taskService).deleteTask("1");
     }
 
     @Test
     void saveTaskCreate() throws Exception {
-        mockMvc.perform(post("/save-task")
+        when(taskService.createTask(any())).thenReturn(CompletableFuture.completedFuture(new Task()));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/save-task")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                         .content("id=&title=111&description=222&status=NEW&due=22-07-2025+12%3A00"))
+                        .andReturn()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/?opResult=success"));
         Task task = TaskDTO.builder()
@@ -116,11 +176,27 @@ public class TaskControllerTest {
         verify(taskService).createTask(task);
     }
 
+    @Test
+    void changeStatus() throws Exception {
+        TaskPatch patch = TaskPatch.builder().status(Status.CLOSED).build();
+        when(taskService.patchTask("1234", patch)).thenReturn(CompletableFuture.completedFuture(new Task()));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/task-status/1234")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .content("status=CLOSED"))
+                        .andReturn()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/?opResult=success"));
+        verify(taskService).patchTask("1234", patch);
+        verify(taskService, never()).updateTask(any());
+    }
+
     @Test
     void saveTaskUpdate() throws Exception {
-        mockMvc.perform(post("/save-task")
+        when(taskService.updateTask(any())).thenReturn(CompletableFuture.completedFuture(new Task()));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/save-task")
                         .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                         .content("id=1234&title=111&description=222&status=NEW&due=22-07-2025+12%3A00"))
+                        .andReturn()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/?opResult=success"));
         Task task = TaskDTO.builder()
@@ -133,4 +209,31 @@ public class TaskControllerTest {
         verify(taskService).updateTask(task);
     }
 
+    @Test
+    void dashboard() throws Exception {
+        TaskStats stats = TaskStats.builder()
+                .total(5)
+                .byStatus(Map.of(Status.NEW, 3L, Status.IN_PROGRESS, 1L, Status.CLOSED, 1L))
+                .overdue(2)
+                .dueByDay(List.of(new DayCount(LocalDate.of(2025, 7, 21), 4)))
+                .build();
+        when(taskService.getTaskStats()).thenReturn(CompletableFuture.completedFuture(stats));
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/dashboard")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("dueFrom=2025-07-21")))
+                .andExpect(content().string(containsString("width: 100.0%")));
+    }
+
+    @Test
+    void taskEvents() throws Exception {
+        when(eventBus.subscribe("1f-7")).thenReturn(new SseEmitter());
+        mockMvc.perform(get("/task-events").header("Last-Event-ID", "1f-7"))
+                .andExpect(request().asyncStarted());
+        verify(eventBus).subscribe("1f-7");
+    }
+
+    private static CompletableFuture<TaskPage> page(String next, String prev) {
+        return CompletableFuture.completedFuture(new TaskPage(new ArrayList<>(), next, prev));
+    }
+
 }
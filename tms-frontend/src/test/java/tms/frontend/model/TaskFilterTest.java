@@ -0,0 +1,24 @@
+package tms.frontend.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskFilterTest {
+
+    @Test
+    void encodesEveryParameter() {
+        TaskFilter filter = TaskFilter.builder()
+                .text("budget & plan")
+                .statuses(List.of(Status.NEW))
+                .dueFrom(LocalDate.of(2025, 7, 21))
+                .sort("-due,status&x=1")
+                .build();
+
+        assertEquals("&text=budget+%26+plan&statuses=NEW&dueFrom=2025-07-21&sort=-due%2Cstatus%26x%3D1",
+                filter.toQuery());
+    }
+}
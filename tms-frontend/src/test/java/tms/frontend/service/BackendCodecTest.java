@@ -0,0 +1,69 @@
+package tms.frontend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import tms.frontend.ApplicationProperties.WireFormat;
+import tms.frontend.model.Status;
+import tms.frontend.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BackendCodecTest {
+
+    private static final Type TASKS = new TypeReference<List<Task>>() {
+    }.getType();
+
+    private final List<Task> tasks = List.of(
+            Task.builder().id("a").title("First").status(Status.NEW).due(LocalDateTime.of(2025, 7, 21, 12, 0)).build(),
+            Task.builder().id("b").title("Second").status(Status.NEW).version(3L).build());
+
+    @Test
+    void roundTripsEveryFormatPlainAndGzipped() throws Exception {
+        for (WireFormat format : WireFormat.values()) {
+            BackendCodec codec = new BackendCodec(Jackson2ObjectMapperBuilder.json().build(), format, true);
+            RequestTemplate template = new RequestTemplate();
+            codec.encode(tasks, TASKS, template);
+            codec.apply(template);
+            assertEquals(List.of(format.getMediaType()), List.copyOf(template.headers().get("Content-Type")));
+            assertEquals(List.of(format.getMediaType()), List.copyOf(template.headers().get("Accept")));
+            assertEquals(List.of("gzip"), List.copyOf(template.headers().get("Accept-Encoding")));
+
+            byte[] body = template.body();
+            assertEquals(tasks, codec.decode(response(body), TASKS), format.name());
+            assertEquals(tasks, codec.decode(response(gzip(body)), TASKS), format.name() + " gzip");
+        }
+    }
+
+    @Test
+    void decodesEmptyBodyAsNull() throws Exception {
+        BackendCodec codec = new BackendCodec(Jackson2ObjectMapperBuilder.json().build(), WireFormat.SMILE, false);
+        assertNull(codec.decode(response(new byte[0]), TASKS));
+    }
+
+    private static Response response(byte[] body) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://backend/tasks", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return Response.builder().status(200).request(request).headers(Map.of()).body(body).build();
+    }
+
+    private static byte[] gzip(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
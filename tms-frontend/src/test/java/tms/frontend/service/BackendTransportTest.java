@@ -0,0 +1,80 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+import tms.frontend.error.ServiceUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackendTransportTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "http://backend/tasks", Map.of(),
+            null, StandardCharsets.UTF_8, null);
+
+    private final List<CompletableFuture<Response>> sent = new ArrayList<>();
+
+    private final AsyncClient<Object> backend = (request, options, context) -> {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        sent.add(response);
+        return response;
+    };
+
+    @Test
+    void queuesThenRejectsOverLimit() {
+        BackendTransport.BoundedClient client =
+                new BackendTransport.BoundedClient(backend, 1, 1, Duration.ofMinutes(1));
+        CompletableFuture<Response> first = execute(client);
+        CompletableFuture<Response> second = execute(client);
+        CompletableFuture<Response> third = execute(client);
+
+        assertEquals(1, sent.size());
+        assertEquals(1, client.queued());
+        assertUnavailable(third);
+
+        sent.get(0).complete(response());
+        assertEquals(200, first.join().status());
+        // the finished call started the queued one
+        assertEquals(2, sent.size());
+        assertEquals(0, client.queued());
+        sent.get(1).complete(response());
+        assertEquals(200, second.join().status());
+    }
+
+    @Test
+    void failsQueuedCallAfterTimeout() {
+        BackendTransport.BoundedClient client =
+                new BackendTransport.BoundedClient(backend, 1, 10, Duration.ofMillis(50));
+        execute(client);
+        CompletableFuture<Response> queued = execute(client);
+
+        assertUnavailable(queued);
+        assertEquals(0, client.queued());
+        // the timed out call is not sent when the connection frees up
+        sent.get(0).complete(response());
+        assertEquals(1, sent.size());
+    }
+
+    private static CompletableFuture<Response> execute(BackendTransport.BoundedClient client) {
+        return client.execute(REQUEST, new Request.Options(), Optional.empty());
+    }
+
+    private static void assertUnavailable(CompletableFuture<Response> call) {
+        CompletionException e = assertThrows(CompletionException.class, call::join);
+        assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+    }
+
+    private static Response response() {
+        return Response.builder().status(200).request(REQUEST).headers(Map.of()).build();
+    }
+}
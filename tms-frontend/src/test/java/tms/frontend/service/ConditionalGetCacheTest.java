@@ -0,0 +1,75 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ConditionalGetCacheTest {
+
+    private static final String ETAG = "\"abc-1\"";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private final AsyncClient<Object> backend = (request, options, context) -> {
+        calls.incrementAndGet();
+        Collection<String> ifNoneMatch = request.headers().get("If-None-Match");
+        Response.Builder response = Response.builder()
+                .request(request)
+                .headers(Map.of("ETag", List.of(ETAG)));
+        if (ifNoneMatch != null && ifNoneMatch.contains(ETAG)) {
+            return CompletableFuture.completedFuture(response.status(304).build());
+        }
+        return CompletableFuture.completedFuture(response.status(200).body("[]", StandardCharsets.UTF_8).build());
+    };
+
+    private final Decoder decoder = (response, type) -> {
+        decodes.incrementAndGet();
+        return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    void revalidatesAndReusesDecodedBody() throws Exception {
+        ConditionalGetCache cache = new ConditionalGetCache(backend, decoder, 10);
+        Request request = Request.create(Request.HttpMethod.GET, "http://backend/tasks", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+
+        Response first = cache.execute(request, new Request.Options(), Optional.empty()).join();
+        assertEquals("[]", cache.decode(first, String.class));
+
+        Response second = cache.execute(request, new Request.Options(), Optional.empty()).join();
+        assertEquals(200, second.status());
+        assertEquals("[]", cache.decode(second, String.class));
+
+        assertEquals(2, calls.get());
+        assertEquals(1, decodes.get());
+        assertEquals(1, cache.getRevalidations());
+    }
+
+    @Test
+    void doesNotCacheOtherMethods() throws Exception {
+        ConditionalGetCache cache = new ConditionalGetCache(backend, decoder, 10);
+        Request request = Request.create(Request.HttpMethod.PUT, "http://backend/tasks", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+
+        cache.execute(request, new Request.Options(), Optional.empty()).join();
+        cache.execute(request, new Request.Options(), Optional.empty()).join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.getRevalidations());
+    }
+}
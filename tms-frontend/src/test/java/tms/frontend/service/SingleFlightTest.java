@@ -0,0 +1,68 @@
+package tms.frontend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void collapsesConcurrentCalls() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(flights.execute("key", key -> {
+                executions.incrementAndGet();
+                return backend;
+            }));
+        }
+        backend.complete("key-value");
+        for (CompletableFuture<String> result : results) {
+            assertEquals("key-value", result.join());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, flights.getCalls());
+        assertEquals(CALLERS - 1, flights.getCollapsed());
+    }
+
+    @Test
+    void sharesExceptions() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.execute("key", key -> backend);
+        CompletableFuture<String> second = flights.execute("key", key -> CompletableFuture.completedFuture("unused"));
+        backend.completeExceptionally(new IllegalStateException("backend down"));
+
+        CompletionException e = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(CompletionException.class, first::join);
+        assertEquals(1, flights.getCollapsed());
+        assertEquals("fresh", flights.execute("key", key -> CompletableFuture.completedFuture("fresh")).join());
+    }
+
+    @Test
+    void joinersSeeStartGeneration() {
+        AtomicLong generation = new AtomicLong(3);
+        SingleFlight<String, String> flights = new SingleFlight<>(generation::get);
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        SingleFlight.Flight<String> first = flights.join("key", key -> backend);
+        generation.incrementAndGet();
+        SingleFlight.Flight<String> second = flights.join("key", key -> CompletableFuture.completedFuture("unused"));
+        backend.complete("value");
+
+        assertEquals(3, second.generation());
+        assertSame(first.result(), second.result());
+        assertEquals(4, flights.join("key", key -> CompletableFuture.completedFuture("fresh")).generation());
+    }
+}
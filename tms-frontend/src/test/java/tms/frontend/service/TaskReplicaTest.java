@@ -0,0 +1,75 @@
+package tms.frontend.service;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskChanges;
+import tms.frontend.model.TaskTombstone;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+public class TaskReplicaTest {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private final AsyncTmBackend backend = mock(AsyncTmBackend.class);
+
+    private final TaskReplica replica = new TaskReplica(backend);
+
+    @Test
+    void appliesDeltasAfterFullSync() {
+        when(backend.getAllTaskChanges()).thenReturn(changes(true, 10, List.of(task("a", 3), task("b", 9)), List.of()));
+        assertEquals(List.of("a", "b"), ids(replica.sync().join()));
+        List<Task> current = replica.current(MAX_AGE);
+        assertSame(current, replica.current(MAX_AGE));
+
+        replica.markChanged();
+        assertNull(replica.current(MAX_AGE));
+        // b is deleted, c is deleted and recreated, a is updated in place
+        when(backend.getTaskChanges(10)).thenReturn(changes(false, 14,
+                List.of(task("a", 11), task("c", 14)),
+                List.of(new TaskTombstone("b", 12L), new TaskTombstone("c", 13L))));
+        assertEquals(List.of("a", "c"), ids(replica.sync().join()));
+        assertEquals(11L, replica.find("a", MAX_AGE).getSeq());
+        assertEquals(1, replica.getFullSyncs());
+    }
+
+    @Test
+    void resyncsWhenChangesAreGone() {
+        when(backend.getAllTaskChanges())
+                .thenReturn(changes(true, 10, List.of(task("a", 3)), List.of()))
+                .thenReturn(changes(true, 20, List.of(task("d", 18)), List.of()));
+        replica.sync().join();
+        Request request = Request.create(Request.HttpMethod.GET, "http://backend/tasks/changes?since=10", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        when(backend.getTaskChanges(10)).thenReturn(CompletableFuture.failedFuture(
+                new FeignException.Gone("Gone", request, null, Map.of())));
+
+        assertEquals(List.of("d"), ids(replica.sync().join()));
+        assertEquals(2, replica.getFullSyncs());
+        assertNull(replica.find("a", MAX_AGE));
+    }
+
+    private static CompletableFuture<TaskChanges> changes(boolean full, long seq, List<Task> tasks,
+                                                          List<TaskTombstone> deleted) {
+        return CompletableFuture.completedFuture(new TaskChanges(full, seq, tasks, deleted));
+    }
+
+    private static Task task(String id, long seq) {
+        return Task.builder().id(id).title(id).seq(seq).build();
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
@@ -0,0 +1,169 @@
+package tms.frontend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tms.frontend.ApplicationProperties;
+import tms.frontend.model.Task;
+import tms.frontend.model.TaskChanges;
+import tms.frontend.model.TaskPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class TaskServiceTest {
+
+    private final AsyncTmBackend backend = mock(AsyncTmBackend.class);
+
+    private final ApplicationProperties properties = new ApplicationProperties();
+
+    private final TaskService taskService = new TaskService();
+
+    @BeforeEach
+    void setUp() {
+        properties.setTaskPageSize(10);
+        properties.setTaskListDescriptionLength(100);
+        properties.setTaskCacheMaxSize(100L);
+        properties.setTaskCacheTtl(Duration.ofMinutes(1));
+        when(backend.getTask(any())).thenAnswer(invocation -> task(invocation.getArgument(0)));
+        when(backend.getTaskPage(anyMap()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(new TaskPage(List.of(), null, null)));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        start();
+        Task first = taskService.getTask("1").join();
+        assertSame(first, taskService.getTask("1").join());
+        taskService.getTaskPage(null, null, null).join();
+        taskService.getTaskPage(null, null, null).join();
+        taskService.getTaskPage(null, "abc", null).join();
+
+        assertEquals(1, taskService.getTaskCacheStats().hitCount());
+        assertEquals(1, taskService.getTaskCacheStats().missCount());
+        assertEquals(1, taskService.getPageCacheStats().hitCount());
+        assertEquals(2, taskService.getPageCacheStats().missCount());
+        verify(backend, times(1)).getTask("1");
+        verify(backend, times(2)).getTaskPage(anyMap());
+    }
+
+    @Test
+    void writeEvictsTaskAndClearsPages() {
+        start();
+        when(backend.updateTask(any())).thenAnswer(invocation -> task("1"));
+        taskService.getTask("1").join();
+        taskService.getTask("2").join();
+        taskService.getTaskPage(null, null, null).join();
+
+        taskService.updateTask(Task.builder().id("1").title("Changed").build()).join();
+        taskService.getTask("1").join();
+        taskService.getTask("2").join();
+        taskService.getTaskPage(null, null, null).join();
+
+        verify(backend, times(2)).getTask("1");
+        verify(backend, times(1)).getTask("2");
+        verify(backend, times(2)).getTaskPage(anyMap());
+    }
+
+    @Test
+    void expiresAfterTtl() throws Exception {
+        properties.setTaskCacheTtl(Duration.ofMillis(50));
+        start();
+        taskService.getTask("1").join();
+        taskService.getTask("1").join();
+        Thread.sleep(100);
+        taskService.getTask("1").join();
+
+        verify(backend, times(2)).getTask("1");
+    }
+
+    @Test
+    void evictsOverMaxSize() {
+        properties.setTaskCacheMaxSize(2L);
+        start();
+        for (String id : List.of("1", "2", "3")) {
+            taskService.getTask(id).join();
+        }
+        // evictions run asynchronously, force the pending ones
+        ((Cache<?, ?>) ReflectionTestUtils.getField(taskService, "taskCache")).cleanUp();
+
+        assertEquals(1, taskService.getTaskCacheStats().evictionCount());
+    }
+
+    @Test
+    void joinedReadStartedBeforeWriteIsNotCached() {
+        start();
+        CompletableFuture<Task> blocked = new CompletableFuture<>();
+        when(backend.getTask("1")).thenReturn(blocked).thenAnswer(invocation -> task("1"));
+        CompletableFuture<Task> before = taskService.getTask("1");
+        taskService.onBackendChange("1");
+        // joins the read that started before the change
+        CompletableFuture<Task> after = taskService.getTask("1");
+        blocked.complete(Task.builder().id("1").title("Stale").build());
+        before.join();
+        after.join();
+
+        assertEquals(0, ((Cache<?, ?>) ReflectionTestUtils.getField(taskService, "taskCache")).estimatedSize());
+        assertEquals("Task 1", taskService.getTask("1").join().getTitle());
+        verify(backend, times(2)).getTask("1");
+    }
+
+    @Test
+    void allTasksResyncAfterChangesAreGone() {
+        start();
+        when(backend.getAllTaskChanges())
+                .thenReturn(fullSync(10, seqTask("a", 3)))
+                .thenReturn(fullSync(20, seqTask("d", 18)));
+        assertEquals("a", taskService.getAllTasks().join().get(0).getId());
+        // served from the replica until a change is reported
+        taskService.getAllTasks().join();
+        verify(backend, times(1)).getAllTaskChanges();
+
+        Request request = Request.create(Request.HttpMethod.GET, "http://backend/tasks/changes?since=10", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        when(backend.getTaskChanges(10)).thenReturn(CompletableFuture.failedFuture(
+                new FeignException.Gone("Gone", request, null, Map.of())));
+        taskService.onBackendChange("a");
+        List<Task> tasks = taskService.getAllTasks().join();
+
+        assertEquals(List.of("d"), tasks.stream().map(Task::getId).toList());
+        verify(backend, times(2)).getAllTaskChanges();
+        verify(backend, never()).getAllTasks();
+    }
+
+    /**
+     * Builds the caches from the properties and swaps the Feign client for the mock backend
+     */
+    private void start() {
+        ReflectionTestUtils.setField(taskService, "applicationProperties", properties);
+        ReflectionTestUtils.setField(taskService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(taskService, "initCaches");
+        ReflectionTestUtils.setField(taskService, "backend", backend);
+        ReflectionTestUtils.setField(taskService, "replica", new TaskReplica(backend));
+    }
+
+    private static CompletableFuture<TaskChanges> fullSync(long seq, Task task) {
+        return CompletableFuture.completedFuture(new TaskChanges(true, seq, List.of(task), List.of()));
+    }
+
+    private static Task seqTask(String id, long seq) {
+        return Task.builder().id(id).title("Task " + id).seq(seq).build();
+    }
+
+    private static CompletableFuture<Task> task(String id) {
+        return CompletableFuture.completedFuture(Task.builder().id(id).title("Task " + id).build());
+    }
+}
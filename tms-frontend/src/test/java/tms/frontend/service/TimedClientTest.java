@@ -0,0 +1,59 @@
+package tms.frontend.service;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final Request request = Request.create(Request.HttpMethod.GET, "http://backend/tasks/1", Map.of(), null,
+            StandardCharsets.UTF_8, null);
+
+    @Test
+    void tagsOutcomeByStatus() {
+        call(status(200));
+        call(status(404));
+        call(status(503));
+
+        assertEquals(1, count("SUCCESS"));
+        assertEquals(1, count("NOT_FOUND"));
+        assertEquals(1, count("SERVER_ERROR"));
+    }
+
+    @Test
+    void tagsTimeouts() {
+        TimedClient client = new TimedClient((request, options, context) ->
+                CompletableFuture.failedFuture(new HttpTimeoutException("request timed out")), registry);
+
+        assertThrows(Exception.class, () -> client.execute(request, new Request.Options(), Optional.empty()).join());
+        assertEquals(1, count("TIMEOUT"));
+    }
+
+    private void call(AsyncClient<Object> backend) {
+        new TimedClient(backend, registry).execute(request, new Request.Options(), Optional.empty()).join();
+    }
+
+    private AsyncClient<Object> status(int status) {
+        return (request, options, context) -> CompletableFuture.completedFuture(Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .build());
+    }
+
+    private long count(String outcome) {
+        return registry.get(TimedClient.METRIC).tag("outcome", outcome).timer().count();
+    }
+}
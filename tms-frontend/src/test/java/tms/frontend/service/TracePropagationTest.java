@@ -0,0 +1,63 @@
+package tms.frontend.service;
+
+import feign.RequestTemplate;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TracePropagationTest {
+
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+
+    private final TracePropagation propagation = propagation();
+
+    @AfterEach
+    void close() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void sendsTraceparentOfCurrentSpan() {
+        Span span = tracerProvider.get("test").spanBuilder("GET /").startSpan();
+        RequestTemplate template = new RequestTemplate();
+        try (Scope scope = span.makeCurrent()) {
+            propagation.apply(template);
+        } finally {
+            span.end();
+        }
+
+        String traceparent = "00-" + span.getSpanContext().getTraceId() + "-"
+                + span.getSpanContext().getSpanId() + "-01";
+        assertIterableEquals(List.of(traceparent), template.headers().get("traceparent"));
+    }
+
+    @Test
+    void sendsNothingWithoutCurrentSpan() {
+        RequestTemplate template = new RequestTemplate();
+
+        propagation.apply(template);
+
+        assertFalse(template.headers().containsKey("traceparent"));
+    }
+
+    private TracePropagation propagation() {
+        Tracer tracer = mock(Tracer.class);
+        when(tracer.currentTraceContext()).thenReturn(new OtelCurrentTraceContext());
+        OtelPropagator propagator = new OtelPropagator(
+                ContextPropagators.create(W3CTraceContextPropagator.getInstance()), tracerProvider.get("test"));
+        return new TracePropagation(tracer, propagator);
+    }
+}
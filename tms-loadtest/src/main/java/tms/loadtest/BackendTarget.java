@@ -0,0 +1,143 @@
+package tms.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the backend REST API directly.
+ */
+public class BackendTarget implements Target {
+
+    private static final int SEED_BATCH = 1_000;
+
+    private static final String[] STATUSES = {"NEW", "IN_PROGRESS", "CLOSED"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final String address;
+
+    private final TaskPool pool;
+
+    private final int pageSize;
+
+    public BackendTarget(String address, TaskPool pool, int pageSize) {
+        this.address = address;
+        this.pool = pool;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Create tasks through the batch endpoint and add them to the pool
+     *
+     * @param client HTTP client
+     * @param count  number of tasks
+     */
+    public void seed(HttpClient client, int count) throws IOException, InterruptedException {
+        for (int created = 0; created < count; created += SEED_BATCH) {
+            createBatch(client, Math.min(SEED_BATCH, count - created));
+        }
+    }
+
+    /**
+     * Create one batch of tasks and add them to the pool
+     *
+     * @param client HTTP client
+     * @param size   number of tasks in the batch
+     */
+    public void createBatch(HttpClient client, int size) throws IOException, InterruptedException {
+        ArrayNode operations = mapper.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            operations.addObject().put("type", "CREATE").set("task", task(null, null));
+        }
+        HttpRequest request = json(HttpRequest.newBuilder(URI.create(address + "/tasks:batch")), operations)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Batch create failed with " + response.statusCode() + ": " + response.body());
+        }
+        for (JsonNode item : mapper.readTree(response.body()).path("items")) {
+            if (item.path("status").asInt() == 201) {
+                pool.add(item.path("id").asText(), item.path("version").asLong());
+            }
+        }
+    }
+
+    @Override
+    public HttpRequest request(Operation operation, TaskPool.Known task) {
+        return switch (operation) {
+            case LIST -> HttpRequest.newBuilder(URI.create(address + "/tasks/page?limit=" + pageSize)).GET().build();
+            case GET -> HttpRequest.newBuilder(URI.create(address + "/tasks/" + task.getId())).GET().build();
+            case CREATE -> json(HttpRequest.newBuilder(URI.create(address + "/tasks")), task(null, null)).build();
+            case UPDATE -> HttpRequest.newBuilder(URI.create(address + "/tasks"))
+                    .header("Content-Type", "application/json")
+                    .PUT(body(task(task.getId(), task.getVersion())))
+                    .build();
+            case DELETE -> HttpRequest.newBuilder(URI.create(address + "/tasks/" + task.getId())).DELETE().build();
+        };
+    }
+
+    @Override
+    public Outcome handle(Operation operation, TaskPool.Known task, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 409) {
+            return Outcome.CONFLICT;
+        }
+        if (status == 404) {
+            return Outcome.NOT_FOUND;
+        }
+        if (status < 200 || status >= 300) {
+            return Outcome.ERROR;
+        }
+        try {
+            if (operation == Operation.CREATE) {
+                JsonNode created = mapper.readTree(response.body());
+                pool.add(created.path("id").asText(), created.path("version").asLong());
+            } else if (operation == Operation.UPDATE) {
+                pool.updated(task.getId(), mapper.readTree(response.body()).path("version").asLong());
+            }
+        } catch (JsonProcessingException e) {
+            return Outcome.ERROR;
+        }
+        return Outcome.OK;
+    }
+
+    private ObjectNode task(String id, Long version) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode task = mapper.createObjectNode();
+        if (id != null) {
+            task.put("id", id);
+            task.put("version", version);
+        }
+        task.put("title", "Load task " + random.nextInt(1_000_000));
+        task.put("description", "Created by the load test to exercise the write path");
+        task.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+        task.put("due", LocalDateTime.now().plusMinutes(random.nextInt(100_000)).withNano(0).toString());
+        return task;
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, JsonNode body) {
+        return builder.header("Content-Type", "application/json").POST(body(body));
+    }
+
+    private HttpRequest.BodyPublisher body(JsonNode body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package tms.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a call back to back from a fixed number of workers (closed model), which measures the most
+ * the service sustains at that concurrency.
+ */
+public final class ClosedLoadRunner {
+
+    /**
+     * Stats of a closed run with the time it took.
+     */
+    public static final class Result {
+        private final OperationStats stats;
+        private final double seconds;
+
+        private Result(OperationStats stats, double seconds) {
+            this.stats = stats;
+            this.seconds = seconds;
+        }
+
+        public OperationStats getStats() {
+            return stats;
+        }
+
+        /**
+         * Completed calls per second, failed ones excluded
+         *
+         * @return throughput
+         */
+        public double getThroughput() {
+            return (stats.getHistogram().getTotalCount() - stats.count(Outcome.ERROR)) / seconds;
+        }
+    }
+
+    private ClosedLoadRunner() {
+    }
+
+    /**
+     * Run until the duration passed or the iterations are used up, whichever comes first
+     *
+     * @param workers    concurrent callers
+     * @param duration   max run time
+     * @param iterations max number of calls over all workers
+     * @param call       call to measure
+     * @return result
+     */
+    public static Result run(int workers, Duration duration, long iterations, Callable<Outcome> call)
+            throws InterruptedException {
+        OperationStats stats = new OperationStats();
+        AtomicLong remaining = new AtomicLong(iterations);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < end && remaining.getAndDecrement() > 0) {
+                        long callStart = System.nanoTime();
+                        Outcome outcome;
+                        try {
+                            outcome = call.call();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            outcome = Outcome.ERROR;
+                        }
+                        stats.record(outcome, System.nanoTime() - callStart);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(stats, (System.nanoTime() - start) / 1e9);
+    }
+}
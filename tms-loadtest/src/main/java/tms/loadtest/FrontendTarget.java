@@ -0,0 +1,83 @@
+package tms.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the web interface the way a browser does, so every request also crosses the frontend.
+ * Saves answer with a redirect carrying opResult, creates do not reveal the new id so only seeded
+ * and backend created tasks are read, updated and deleted.
+ */
+public class FrontendTarget implements Target {
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    private static final String[] STATUSES = {"NEW", "IN_PROGRESS", "CLOSED"};
+
+    private final String address;
+
+    private final TaskPool pool;
+
+    public FrontendTarget(String address, TaskPool pool) {
+        this.address = address;
+        this.pool = pool;
+    }
+
+    @Override
+    public HttpRequest request(Operation operation, TaskPool.Known task) {
+        return switch (operation) {
+            case LIST -> HttpRequest.newBuilder(URI.create(address + "/task-list")).GET().build();
+            case GET -> HttpRequest.newBuilder(URI.create(address + "/task-details/" + task.getId())).GET().build();
+            case CREATE -> form(null);
+            case UPDATE -> form(task);
+            case DELETE -> HttpRequest.newBuilder(URI.create(address + "/delete-task/" + task.getId())).GET().build();
+        };
+    }
+
+    @Override
+    public Outcome handle(Operation operation, TaskPool.Known task, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == 404) {
+            return Outcome.NOT_FOUND;
+        }
+        if (status == 302) {
+            String location = response.headers().firstValue("Location").orElse("");
+            if (!location.contains("opResult=success")) {
+                return Outcome.ERROR;
+            }
+            if (operation == Operation.UPDATE) {
+                pool.updated(task.getId(), task.getVersion() + 1);
+            }
+            return Outcome.OK;
+        }
+        return status >= 200 && status < 300 ? Outcome.OK : Outcome.ERROR;
+    }
+
+    private HttpRequest form(TaskPool.Known task) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("id", task == null ? "" : task.getId());
+        if (task != null) {
+            fields.put("version", String.valueOf(task.getVersion()));
+        }
+        fields.put("title", "Load task " + random.nextInt(1_000_000));
+        fields.put("description", "Created by the load test to exercise the write path");
+        fields.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+        fields.put("due", LocalDateTime.now().plusMinutes(random.nextInt(100_000)).format(DUE_FORMAT));
+        StringJoiner body = new StringJoiner("&");
+        fields.forEach((name, value) -> body.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return HttpRequest.newBuilder(URI.create(address + "/save-task"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+}
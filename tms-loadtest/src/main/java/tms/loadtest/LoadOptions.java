@@ -0,0 +1,115 @@
+package tms.loadtest;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from --name=value arguments.
+ */
+@Getter
+@Builder
+@ToString
+public class LoadOptions {
+
+    /**
+     * Service receiving the traffic
+     */
+    public enum Target {
+        BACKEND,
+        FRONTEND
+    }
+
+    /**
+     * Request threads of the services, COMPARE runs the scenario once per mode
+     */
+    public enum Threads {
+        PLATFORM,
+        VIRTUAL,
+        COMPARE
+    }
+
+    private final Target target;
+    /**
+     * Requests started per second, independent of how fast responses come back
+     */
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    /**
+     * Tasks created before the run
+     */
+    private final int seedTasks;
+    private final int pageSize;
+    /**
+     * Requests still in flight above this are not started and counted as dropped
+     */
+    private final int maxInFlight;
+    /**
+     * Relative weight of each operation
+     */
+    private final Map<Operation, Integer> mix;
+    private final Threads threads;
+    private final String serviceHeap;
+    private final Path backendJar;
+    private final Path frontendJar;
+    private final Path outputDir;
+
+    /**
+     * Parse command line arguments
+     *
+     * @param args arguments as --name=value
+     * @return LoadOptions
+     */
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return LoadOptions.builder()
+                .target(Target.valueOf(values.getOrDefault("target", "backend").toUpperCase()))
+                .rate(Integer.parseInt(values.getOrDefault("rate", "200")))
+                .durationSeconds(Integer.parseInt(values.getOrDefault("duration", "60")))
+                .warmupSeconds(Integer.parseInt(values.getOrDefault("warmup", "10")))
+                .seedTasks(Integer.parseInt(values.getOrDefault("seed", "1000")))
+                .pageSize(Integer.parseInt(values.getOrDefault("page-size", "25")))
+                .maxInFlight(Integer.parseInt(values.getOrDefault("max-in-flight", "10000")))
+                .mix(parseMix(values.getOrDefault("mix", "list:50,get:30,create:10,update:8,delete:2")))
+                .threads(Threads.valueOf(values.getOrDefault("threads", "platform").toUpperCase()))
+                .serviceHeap(values.getOrDefault("service-heap", "512m"))
+                .backendJar(path(values, "backend-jar", "tms.backend.jar"))
+                .frontendJar(path(values, "frontend-jar", "tms.frontend.jar"))
+                .outputDir(Paths.get(values.getOrDefault("out",
+                        System.getProperty("tms.loadtest.out", "tms-loadtest/build/loadtest"))))
+                .build();
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got " + part);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix needs at least one positive weight");
+        }
+        return weights;
+    }
+
+    private static Path path(Map<String, String> values, String name, String property) {
+        String value = values.getOrDefault(name, System.getProperty(property));
+        return value == null ? null : Paths.get(value);
+    }
+}
@@ -0,0 +1,112 @@
+package tms.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End to end load test: embedded Mongo, the backend and optionally the frontend each in their own
+ * process on this machine, driven at a fixed arrival rate with a configurable operation mix.
+ * Run with {@code gradle :tms-loadtest:run --args="--rate=500 --duration=60 --target=frontend"},
+ * see {@link LoadOptions} for all arguments.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        if (options.getBackendJar() == null
+                || options.getTarget() == LoadOptions.Target.FRONTEND && options.getFrontendJar() == null) {
+            throw new IllegalArgumentException("Service jars are missing, run through gradle or pass --backend-jar"
+                    + " and --frontend-jar");
+        }
+        Files.createDirectories(options.getOutputDir());
+        List<Boolean> modes = switch (options.getThreads()) {
+            case PLATFORM -> List.of(false);
+            case VIRTUAL -> List.of(true);
+            case COMPARE -> List.of(false, true);
+        };
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongo = Mongod.instance().start(Version.Main.V6_0)) {
+            ServerAddress address = mongo.current().getServerAddress();
+            String uri = "mongodb://" + address.getHost() + ":" + address.getPort();
+            for (boolean virtual : modes) {
+                run(options, uri, virtual);
+            }
+        }
+    }
+
+    /**
+     * Backend arguments pointing it to a fresh database, so earlier runs do not change the data size
+     *
+     * @param mongoUri embedded Mongo address
+     * @param virtual  serve requests on virtual threads
+     * @return Spring Boot arguments
+     */
+    static List<String> backendArgs(String mongoUri, boolean virtual) {
+        return List.of(
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.data.mongodb.database=loadtest_" + System.currentTimeMillis(),
+                "--generate-test-data=false",
+                "--spring.threads.virtual.enabled=" + virtual);
+    }
+
+    private static void run(LoadOptions options, String mongoUri, boolean virtual) throws Exception {
+        String name = options.getTarget().name().toLowerCase() + "-" + (virtual ? "virtual" : "platform");
+        List<String> backendArgs = backendArgs(mongoUri, virtual);
+        List<ServiceProcess> services = new ArrayList<>();
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ServiceProcess backend = ServiceProcess.start(name + "-backend", options.getBackendJar(),
+                    options.getServiceHeap(), "/tasks/page?limit=1", options.getOutputDir(), backendArgs);
+            services.add(backend);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .executor(clientExecutor)
+                    .build();
+            TaskPool pool = new TaskPool();
+            BackendTarget backendTarget = new BackendTarget(backend.getAddress(), pool, options.getPageSize());
+            log.info("Seeding {} tasks", options.getSeedTasks());
+            backendTarget.seed(client, options.getSeedTasks());
+
+            Target target = backendTarget;
+            if (options.getTarget() == LoadOptions.Target.FRONTEND) {
+                ServiceProcess frontend = ServiceProcess.start(name + "-frontend", options.getFrontendJar(),
+                        options.getServiceHeap(), "/task-list", options.getOutputDir(), List.of(
+                                "--tms-backend-api-address=" + backend.getAddress(),
+                                "--task-page-size=" + options.getPageSize(),
+                                "--spring.threads.virtual.enabled=" + virtual));
+                services.add(frontend);
+                target = new FrontendTarget(frontend.getAddress(), pool);
+            }
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, target, pool, options.getMix(),
+                    options.getMaxInFlight());
+            if (options.getWarmupSeconds() > 0) {
+                log.info("Warming up for {} s", options.getWarmupSeconds());
+                generator.run(options.getRate(), Duration.ofSeconds(options.getWarmupSeconds()));
+            }
+            log.info("Running {} for {} s", name, options.getDurationSeconds());
+            new Report().write(name, options,
+                    generator.run(options.getRate(), Duration.ofSeconds(options.getDurationSeconds())),
+                    options.getDurationSeconds());
+        } finally {
+            for (ServiceProcess service : services) {
+                service.close();
+            }
+            clientExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package tms.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests at a fixed rate whatever the response times are (open model), as real users do.
+ * Requests are sent asynchronously so a slow service never slows down the arrivals.
+ */
+public class OpenLoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final Target target;
+
+    private final TaskPool pool;
+
+    private final Map<Operation, Integer> mix;
+
+    private final int totalWeight;
+
+    private final int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoadGenerator(HttpClient client, Target target, TaskPool pool, Map<Operation, Integer> mix,
+                             int maxInFlight) {
+        this.client = client;
+        this.target = target;
+        this.pool = pool;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Run the mix at a fixed rate and wait for the requests still in flight
+     *
+     * @param rate     requests started per second
+     * @param duration how long to keep starting requests
+     * @return stats per operation
+     */
+    public Map<Operation, OperationStats> run(int rate, Duration duration) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            TaskPool.Known task = null;
+            if (operation == Operation.DELETE) {
+                task = pool.take();
+            } else if (operation == Operation.GET || operation == Operation.UPDATE) {
+                task = pool.random();
+            }
+            if (task == null && operation != Operation.LIST && operation != Operation.CREATE) {
+                operation = Operation.CREATE;
+            }
+            OperationStats operationStats = stats.get(operation);
+            if (inFlight.get() >= maxInFlight) {
+                operationStats.drop();
+                if (operation == Operation.DELETE) {
+                    pool.add(task.getId(), task.getVersion());
+                }
+                continue;
+            }
+            send(operation, task, intended, operationStats);
+        }
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    private void send(Operation operation, TaskPool.Known task, long intended, OperationStats stats) {
+        HttpRequest request = target.request(operation, task);
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, e) -> {
+            Outcome outcome = e != null ? Outcome.ERROR : target.handle(operation, task, response);
+            stats.record(outcome, System.nanoTime() - intended);
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            value -= weight.getValue();
+            if (value < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Mix weights changed");
+    }
+}
@@ -0,0 +1,12 @@
+package tms.loadtest;
+
+/**
+ * Kinds of traffic the load test mixes.
+ */
+public enum Operation {
+    LIST,
+    GET,
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,61 @@
+package tms.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one operation.
+ * Latency is measured from when the request was due to start, so a stalled service is not hidden
+ * by requests that could not be sent in time.
+ */
+public class OperationStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+    private final LongAdder dropped = new LongAdder();
+
+    public OperationStats() {
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    /**
+     * Record a finished request
+     *
+     * @param outcome      how it ended
+     * @param latencyNanos time from the intended start to completion
+     */
+    public void record(Outcome outcome, long latencyNanos) {
+        outcomes.get(outcome).increment();
+        histogram.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    /**
+     * Count a request that was not started because too many were in flight
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long count(Outcome outcome) {
+        return outcomes.get(outcome).sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,17 @@
+package tms.loadtest;
+
+/**
+ * How a request ended.
+ */
+public enum Outcome {
+    OK,
+    /**
+     * Update lost an optimistic locking race
+     */
+    CONFLICT,
+    /**
+     * Task was deleted by another request
+     */
+    NOT_FOUND,
+    ERROR
+}
@@ -0,0 +1,209 @@
+package tms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Performance regression gate: runs a fixed set of backend scenarios against embedded Mongo and compares
+ * throughput and p99 with the committed baseline, exiting with 1 when a scenario is worse than the
+ * tolerance allows. A scenario without a baseline fails too, so an empty baseline cannot disarm the gate,
+ * unless missing baselines are explicitly allowed with {@code gradle perfTest -PallowMissingBaseline}.
+ * Run with {@code gradle perfTest}, record new baselines on the reference machine with
+ * {@code gradle perfTest -PupdateBaseline}.
+ */
+@Slf4j
+public class PerfTest {
+
+    private static final int SEED_BATCH = 500;
+    private static final int SEED_BATCHES = 40;
+    private static final int PAGE_SIZE = 50;
+    private static final Duration SCENARIO_DURATION = Duration.ofSeconds(15);
+    private static final Duration WARMUP_DURATION = Duration.ofSeconds(5);
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final TaskPool pool = new TaskPool();
+
+    private final ThreadLocal<String> cursors = new ThreadLocal<>();
+
+    private String address;
+
+    private BackendTarget target;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        Path baseline = Paths.get(values.getOrDefault("baseline", "tms-loadtest/perf-baseline.json"));
+        double tolerance = Double.parseDouble(values.getOrDefault("tolerance", "0.2"));
+        boolean update = Boolean.parseBoolean(values.getOrDefault("update-baseline", "false"));
+        boolean allowMissing = Boolean.parseBoolean(values.getOrDefault("allow-missing-baseline", "false"));
+        Path jar = Paths.get(values.getOrDefault("backend-jar", System.getProperty("tms.backend.jar")));
+        Path outputDir = Paths.get(values.getOrDefault("out",
+                System.getProperty("tms.loadtest.out", "tms-loadtest/build/perf")));
+        Files.createDirectories(outputDir);
+
+        Map<String, ClosedLoadRunner.Result> results;
+        try (TransitionWalker.ReachedState<RunningMongodProcess> mongo = Mongod.instance().start(Version.Main.V6_0)) {
+            ServerAddress mongoAddress = mongo.current().getServerAddress();
+            String uri = "mongodb://" + mongoAddress.getHost() + ":" + mongoAddress.getPort();
+            try (ServiceProcess backend = ServiceProcess.start("perf-backend", jar, "512m", "/tasks/page?limit=1",
+                    outputDir, LoadTest.backendArgs(uri, false))) {
+                results = new PerfTest().runScenarios(backend.getAddress());
+            }
+        }
+        System.exit(new PerfTest().compare(results, baseline, tolerance, update, allowMissing, outputDir) ? 0 : 1);
+    }
+
+    private Map<String, ClosedLoadRunner.Result> runScenarios(String address) throws Exception {
+        this.address = address;
+        this.target = new BackendTarget(address, pool, PAGE_SIZE);
+        log.info("Warming up");
+        target.seed(client, 1_000);
+        ClosedLoadRunner.run(8, WARMUP_DURATION, Long.MAX_VALUE, this::pointRead);
+        ClosedLoadRunner.run(8, WARMUP_DURATION, Long.MAX_VALUE, this::nextPage);
+
+        Map<String, ClosedLoadRunner.Result> results = new LinkedHashMap<>();
+        results.put("bulkSeed", scenario("bulkSeed", 4, SEED_BATCHES, () -> {
+            target.createBatch(client, SEED_BATCH);
+            return Outcome.OK;
+        }));
+        results.put("pagedList", scenario("pagedList", 8, Long.MAX_VALUE, this::nextPage));
+        results.put("pointReads", scenario("pointReads", 16, Long.MAX_VALUE, this::pointRead));
+        results.put("concurrentUpdates", scenario("concurrentUpdates", 16, Long.MAX_VALUE, this::update));
+        return results;
+    }
+
+    private ClosedLoadRunner.Result scenario(String name, int workers, long iterations, Callable<Outcome> call)
+            throws InterruptedException {
+        log.info("Running {} with {} workers", name, workers);
+        return ClosedLoadRunner.run(workers, SCENARIO_DURATION, iterations, call);
+    }
+
+    /**
+     * Walk the task list page by page, starting over after the last one
+     */
+    private Outcome nextPage() throws IOException, InterruptedException {
+        String cursor = cursors.get();
+        String uri = address + "/tasks/page?limit=" + PAGE_SIZE
+                + (cursor == null ? "" : "&after=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return Outcome.ERROR;
+        }
+        JsonNode next = mapper.readTree(response.body()).path("next");
+        cursors.set(next.isTextual() ? next.asText() : null);
+        return Outcome.OK;
+    }
+
+    private Outcome pointRead() throws IOException, InterruptedException {
+        return send(Operation.GET, pool.random());
+    }
+
+    private Outcome update() throws IOException, InterruptedException {
+        return send(Operation.UPDATE, pool.random());
+    }
+
+    private Outcome send(Operation operation, TaskPool.Known task) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(target.request(operation, task),
+                HttpResponse.BodyHandlers.ofString());
+        Outcome outcome = target.handle(operation, task, response);
+        // a lost optimistic locking race is expected under concurrent updates
+        return outcome == Outcome.CONFLICT ? Outcome.OK : outcome;
+    }
+
+    private boolean compare(Map<String, ClosedLoadRunner.Result> results, Path baselineFile, double tolerance,
+                            boolean update, boolean allowMissing, Path outputDir) throws IOException {
+        ObjectNode baseline = Files.exists(baselineFile)
+                ? (ObjectNode) mapper.readTree(baselineFile.toFile())
+                : mapper.createObjectNode();
+        JsonNode baselineScenarios = baseline.path("scenarios");
+        ObjectNode current = mapper.createObjectNode();
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%n%-18s %12s %12s %10s %10s %7s  %s%n", "scenario", "ops/s", "baseline", "p99 ms",
+                "baseline", "errors", "verdict");
+        for (Map.Entry<String, ClosedLoadRunner.Result> entry : results.entrySet()) {
+            ClosedLoadRunner.Result result = entry.getValue();
+            double throughput = result.getThroughput();
+            double p99 = result.getStats().getHistogram().getValueAtPercentile(99) / 1000.0;
+            long errors = result.getStats().count(Outcome.ERROR);
+            ObjectNode node = current.putObject(entry.getKey());
+            node.put("throughput", throughput);
+            node.put("p99Ms", p99);
+
+            JsonNode base = baselineScenarios.path(entry.getKey());
+            String verdict;
+            if (errors > 0) {
+                verdict = "FAIL errors";
+                regressions.add(entry.getKey() + " had " + errors + " failed calls");
+            } else if (!base.has("throughput") || !base.has("p99Ms")) {
+                verdict = allowMissing || update ? "no baseline" : "FAIL no baseline";
+                if (!allowMissing && !update) {
+                    regressions.add(entry.getKey() + " has no baseline, record one with -PupdateBaseline");
+                }
+            } else if (throughput < base.get("throughput").asDouble() * (1 - tolerance)) {
+                verdict = "FAIL throughput";
+                regressions.add(entry.getKey() + " throughput " + throughput + " below baseline "
+                        + base.get("throughput").asDouble());
+            } else if (p99 > base.get("p99Ms").asDouble() * (1 + tolerance)) {
+                verdict = "FAIL p99";
+                regressions.add(entry.getKey() + " p99 " + p99 + " ms above baseline " + base.get("p99Ms").asDouble());
+            } else {
+                verdict = "ok";
+            }
+            System.out.printf("%-18s %12.1f %12s %10.2f %10s %7d  %s%n", entry.getKey(), throughput,
+                    base.has("throughput") ? String.format("%.1f", base.get("throughput").asDouble()) : "-",
+                    p99, base.has("p99Ms") ? String.format("%.2f", base.get("p99Ms").asDouble()) : "-",
+                    errors, verdict);
+        }
+        mapper.writeValue(outputDir.resolve("results.json").toFile(), current);
+
+        if (update) {
+            baseline.put("recordedAt", LocalDate.now().toString());
+            baseline.put("recordedWith", Runtime.version() + ", " + Runtime.getRuntime().availableProcessors()
+                    + " CPUs, " + System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+            baseline.set("scenarios", current);
+            mapper.writeValue(baselineFile.toFile(), baseline);
+            System.out.println("Baseline updated in " + baselineFile);
+            return true;
+        }
+        regressions.forEach(regression -> System.out.println("Regression: " + regression));
+        System.out.printf("Tolerance %.0f%%, %s%n", tolerance * 100,
+                regressions.isEmpty() ? "no regressions" : regressions.size() + " regressions");
+        return regressions.isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package tms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Prints per operation throughput and latency percentiles, and writes them as JSON next to the
+ * full HdrHistogram percentile distributions.
+ */
+public class Report {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Print and store the results of a run
+     *
+     * @param name            run name, used for file names
+     * @param options         load options
+     * @param stats           stats per operation
+     * @param durationSeconds measured duration
+     * @return summary as written to the JSON file
+     */
+    public ObjectNode write(String name, LoadOptions options, Map<Operation, OperationStats> stats,
+                            int durationSeconds) throws IOException {
+        ObjectNode summary = mapper.createObjectNode();
+        summary.put("name", name);
+        summary.put("target", options.getTarget().name());
+        summary.put("rate", options.getRate());
+        summary.put("durationSeconds", durationSeconds);
+        ObjectNode operations = summary.putObject("operations");
+        PrintStream out = System.out;
+        out.printf("%n%s: %s at %d req/s for %d s%n", name, options.getTarget(), options.getRate(), durationSeconds);
+        out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n", "op", "count", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "409", "404", "errors", "dropped");
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            Histogram histogram = operation.getHistogram();
+            long count = histogram.getTotalCount();
+            if (count == 0 && operation.getDropped() == 0) {
+                continue;
+            }
+            ObjectNode node = operations.putObject(entry.getKey().name());
+            node.put("count", count);
+            node.put("throughput", count / (double) durationSeconds);
+            node.put("p50Ms", millis(histogram, 50));
+            node.put("p90Ms", millis(histogram, 90));
+            node.put("p99Ms", millis(histogram, 99));
+            node.put("p999Ms", millis(histogram, 99.9));
+            node.put("maxMs", histogram.getMaxValue() / MICROS_PER_MILLI);
+            node.put("conflicts", operation.count(Outcome.CONFLICT));
+            node.put("notFound", operation.count(Outcome.NOT_FOUND));
+            node.put("errors", operation.count(Outcome.ERROR));
+            node.put("dropped", operation.getDropped());
+            out.printf("%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d %7d%n", entry.getKey(), count,
+                    node.get("throughput").asDouble(), node.get("p50Ms").asDouble(), node.get("p90Ms").asDouble(),
+                    node.get("p99Ms").asDouble(), node.get("p999Ms").asDouble(), node.get("maxMs").asDouble(),
+                    operation.count(Outcome.CONFLICT), operation.count(Outcome.NOT_FOUND),
+                    operation.count(Outcome.ERROR), operation.getDropped());
+            try (PrintStream distribution = new PrintStream(Files.newOutputStream(
+                    options.getOutputDir().resolve(name + "-" + entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+        }
+        Path file = options.getOutputDir().resolve(name + ".json");
+        mapper.writeValue(file.toFile(), summary);
+        out.println("Results written to " + file);
+        return summary;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
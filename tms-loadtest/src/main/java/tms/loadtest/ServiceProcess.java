@@ -0,0 +1,108 @@
+package tms.loadtest;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service started from its boot jar in a separate JVM, stopped on close.
+ */
+@Slf4j
+public class ServiceProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private final Process process;
+
+    @Getter
+    private final String address;
+
+    private ServiceProcess(Process process, String address) {
+        this.process = process;
+        this.address = address;
+    }
+
+    /**
+     * Start a service and wait until it answers
+     *
+     * @param name        name used for the log file
+     * @param jar         boot jar
+     * @param heap        max heap of the service
+     * @param readyPath   path answering 200 once the service is up
+     * @param outputDir   directory receiving the service log
+     * @param serviceArgs Spring Boot arguments, the server and management ports are added
+     * @return started service
+     */
+    public static ServiceProcess start(String name, Path jar, String heap, String readyPath, Path outputDir,
+                                       List<String> serviceArgs) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Xmx" + heap);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        // the configured management ports would clash with a locally running service
+        command.add("--management.server.port=" + freePort());
+        command.add("--logging.file.name=" + outputDir.resolve(name + ".log"));
+        command.addAll(serviceArgs);
+        log.info("Starting {}: {}", name, command);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(outputDir.resolve(name + ".out").toFile())
+                .start();
+        ServiceProcess service = new ServiceProcess(process, "http://localhost:" + port);
+        try {
+            service.awaitReady(readyPath);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+        return service;
+    }
+
+    private void awaitReady(String readyPath) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(address + readyPath)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Service exited with " + process.exitValue() + " before answering " + address);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IOException("Service did not answer " + address + readyPath + " within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package tms.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Maps operations to the requests of one service and interprets its answers.
+ */
+public interface Target {
+
+    /**
+     * Build the request of an operation
+     *
+     * @param operation operation
+     * @param task      task to read, update or delete, null for list and create
+     * @return request
+     */
+    HttpRequest request(Operation operation, TaskPool.Known task);
+
+    /**
+     * Classify the answer and keep the task pool in step with it
+     *
+     * @param operation operation
+     * @param task      task the request was about, null for list and create
+     * @param response  response
+     * @return outcome
+     */
+    Outcome handle(Operation operation, TaskPool.Known task, HttpResponse<String> response);
+}
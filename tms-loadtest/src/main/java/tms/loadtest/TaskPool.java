@@ -0,0 +1,102 @@
+package tms.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tasks known to exist with their last seen version, gets, updates and deletes pick from here.
+ */
+public class TaskPool {
+
+    /**
+     * A task id with the version to send on update.
+     */
+    public static final class Known {
+        private final String id;
+        private final long version;
+
+        public Known(String id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private final List<String> ids = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Map<String, Long> versions = new HashMap<>();
+
+    /**
+     * Add a created task
+     *
+     * @param id      task id
+     * @param version current version
+     */
+    public synchronized void add(String id, long version) {
+        if (!positions.containsKey(id)) {
+            positions.put(id, ids.size());
+            ids.add(id);
+        }
+        versions.put(id, version);
+    }
+
+    /**
+     * Remember the version of an updated task, unless it was deleted meanwhile
+     *
+     * @param id      task id
+     * @param version current version
+     */
+    public synchronized void updated(String id, long version) {
+        versions.computeIfPresent(id, (key, previous) -> Math.max(previous, version));
+    }
+
+    /**
+     * Any known task
+     *
+     * @return task, null when none are known
+     */
+    public synchronized Known random() {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        return new Known(id, versions.get(id));
+    }
+
+    /**
+     * Take a task out so no other operation picks it
+     *
+     * @return task, null when none are known
+     */
+    public synchronized Known take() {
+        Known known = random();
+        if (known != null) {
+            remove(known.getId());
+        }
+        return known;
+    }
+
+    private void remove(String id) {
+        int position = positions.remove(id);
+        String last = ids.remove(ids.size() - 1);
+        if (!last.equals(id)) {
+            ids.set(position, last);
+            positions.put(last, position);
+        }
+        versions.remove(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+}